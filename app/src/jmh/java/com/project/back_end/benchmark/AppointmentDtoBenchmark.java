@@ -0,0 +1,52 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building {@code AppointmentDTO}s from projected rows, the constructor the dashboard
+ * listings and exports run once per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AppointmentDtoBenchmark {
+
+    @Param({"10", "1000"})
+    public int appointments;
+
+    private List<LocalDateTime> times;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.of(2025, 5, 1, 9, 0);
+        times = new ArrayList<>(appointments);
+        for (int i = 0; i < appointments; i++) {
+            times.add(start.plusHours(i));
+        }
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> mapToDto() {
+        List<AppointmentDTO> dtos = new ArrayList<>(times.size());
+        long id = 0;
+        for (LocalDateTime time : times) {
+            dtos.add(new AppointmentDTO(id++, 1L, "Dr. Emily Adams", 1L, "John Smith", "john.smith@example.com",
+                    "888-111-1111", "1 Main St", time, 0, 30));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.services.DoctorAvailabilityIndex;
+import com.project.back_end.services.DoctorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DoctorServiceBenchmark {
+
+    // Doctor 1 has a booking on this day in the seed data
+    private static final LocalDate SEEDED_DAY = LocalDate.of(2025, 5, 1);
+
+    private DoctorService doctorService;
+    private DoctorAvailabilityIndex availabilityIndex;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededContext seeded) {
+        doctorService = seeded.bean(DoctorService.class);
+        availabilityIndex = seeded.bean(DoctorAvailabilityIndex.class);
+    }
+
+    @Benchmark
+    public List<String> getDoctorAvailabilityWarm() {
+        return doctorService.getDoctorAvailability(1L, SEEDED_DAY);
+    }
+
+    @Benchmark
+    public List<String> getDoctorAvailabilityCold() {
+        availabilityIndex.clear();
+        return doctorService.getDoctorAvailability(1L, SEEDED_DAY);
+    }
+
+    // filterDoctorByTime is private, so it is measured through the time-only filter
+    @Benchmark
+    public Map<String, Object> filterDoctorsByTime(TimeFilter filter) {
+        return doctorService.filterDoctorsByTime(filter.amOrPm);
+    }
+
+    @State(Scope.Benchmark)
+    public static class TimeFilter {
+        @Param({"AM", "PM"})
+        public String amOrPm;
+    }
+}
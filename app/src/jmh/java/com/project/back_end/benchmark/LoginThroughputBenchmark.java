@@ -0,0 +1,62 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.services.PasswordVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login storm: 64 concurrent callers checking bcrypt passwords, either on their own threads
+ * (what a naive switch to hashing would do to Tomcat threads) or through the bounded verifier
+ * pool. Rejected checks count as completed operations, as they are answered with 503 at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class LoginThroughputBenchmark {
+
+    private static final String PASSWORD = "passJane1";
+
+    @Param({"10"})
+    public int strength;
+
+    @Param({"256"})
+    public int queueCapacity;
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordVerifier verifier;
+    private String stored;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        verifier = new PasswordVerifier(strength, 0, queueCapacity, Integer.MAX_VALUE, ForkJoinPool.commonPool());
+        stored = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyOnCallerThread() {
+        return encoder.matches(PASSWORD, stored);
+    }
+
+    @Benchmark
+    public boolean verifyOnPool() {
+        try {
+            return verifier.verify("patient:jane.doe@example.com", PASSWORD, stored).join().matches();
+        } catch (PasswordVerifier.RejectedException e) {
+            return false;
+        }
+    }
+}
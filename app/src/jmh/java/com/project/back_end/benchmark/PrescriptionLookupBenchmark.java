@@ -0,0 +1,110 @@
+package com.project.back_end.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.project.back_end.DTO.PrescriptionView;
+import com.project.back_end.models.Prescription;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /prescription/{appointmentId}} lookups on an embedded mongod: a collection scan
+ * (no indexes, the old state), an index lookup fetching whole documents, and the covered
+ * projection served by {@code PrescriptionRepository.findViewByAppointmentId}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrescriptionLookupBenchmark {
+
+    private static final String INDEXED = "prescription";
+    private static final String UNINDEXED = "prescription_unindexed";
+    private static final int INSERT_CHUNK = 10_000;
+
+    @Param({"100000"})
+    public int prescriptions;
+
+    private TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private MongoClient client;
+    private MongoTemplate template;
+
+    @Setup(Level.Trial)
+    public void start() {
+        mongod = Mongod.instance().start(Version.Main.V7_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        client = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        template = new MongoTemplate(client, "prescriptions");
+
+        // Same index definitions the application creates at startup from the @CompoundIndex annotations
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(new MongoMappingContext());
+        resolver.resolveIndexFor(Prescription.class).forEach(index -> template.indexOps(INDEXED).ensureIndex(index));
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<Prescription> chunk = new ArrayList<>(INSERT_CHUNK);
+        for (int i = 0; i < prescriptions; i++) {
+            Prescription prescription = new Prescription("Patient " + (i % 5000), (long) i, "Paracetamol", "500mg");
+            prescription.setDoctorNotes("Take 1 tablet every 6 hours.");
+            prescription.setCreatedAt(start.plusMinutes(i));
+            chunk.add(prescription);
+            if (chunk.size() == INSERT_CHUNK || i == prescriptions - 1) {
+                template.insert(chunk, INDEXED);
+                chunk.forEach(p -> p.setId(null));
+                template.insert(chunk, UNINDEXED);
+                chunk.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        client.close();
+        mongod.close();
+    }
+
+    @Benchmark
+    public List<Prescription> collectionScan() {
+        return template.find(byAppointment(), Prescription.class, UNINDEXED);
+    }
+
+    @Benchmark
+    public List<Prescription> indexLookup() {
+        return template.find(byAppointment(), Prescription.class, INDEXED);
+    }
+
+    @Benchmark
+    public List<PrescriptionView> coveredProjection() {
+        Query query = byAppointment();
+        query.fields().exclude("_id").include("patientName", "appointmentId", "medication", "dosage", "doctorNotes");
+        return template.find(query, PrescriptionView.class, INDEXED);
+    }
+
+    private Query byAppointment() {
+        long appointmentId = ThreadLocalRandom.current().nextLong(prescriptions);
+        return Query.query(Criteria.where("appointmentId").is(appointmentId));
+    }
+}
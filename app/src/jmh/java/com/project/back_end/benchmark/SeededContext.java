@@ -0,0 +1,65 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.repo.IdAllocationAligner;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Boots the application once per trial on the in-memory H2 of the "test" profile and seeds it
+ * with the INSERT statements of {@code database_sturcture.sql}.
+ */
+@State(Scope.Benchmark)
+public class SeededContext {
+
+    // Everything after this marker is Mongo data and MySQL stored procedures
+    private static final String SEED_END_MARKER = "-- use prescriptions";
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = new SpringApplicationBuilder(BackEndApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        seed(context.getBean(JdbcTemplate.class));
+        // The seed inserts with auto-increment ids, move the id generators past them
+        context.getBean(IdAllocationAligner.class).align();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private static void seed(JdbcTemplate jdbc) throws IOException {
+        String script = new ClassPathResource("database_sturcture.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        int end = script.indexOf(SEED_END_MARKER);
+        if (end >= 0) {
+            script = script.substring(0, end);
+        }
+        for (String statement : script.split(";")) {
+            if (!statement.isBlank()) {
+                jdbc.execute(statement.trim());
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.services.Services;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServicesBenchmark {
+
+    // name|specialty|time, empty parts are left out of the filter
+    @Param({"||", "Emily||", "|Cardiologist|", "||AM", "Dr|Cardiologist|PM"})
+    public String filter;
+
+    private Services services;
+    private String name;
+    private String specialty;
+    private String time;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededContext seeded) {
+        services = seeded.bean(Services.class);
+        String[] parts = filter.split("\\|", -1);
+        name = parts[0].isEmpty() ? null : parts[0];
+        specialty = parts[1].isEmpty() ? null : parts[1];
+        time = parts[2].isEmpty() ? null : parts[2];
+    }
+
+    @Benchmark
+    public Map<String, Object> filterDoctor() {
+        return services.filterDoctor(name, specialty, time);
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.services.TokenCache;
+import com.project.back_end.services.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private TokenCache tokenCache;
+    private String doctorToken;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededContext seeded) {
+        tokenService = seeded.bean(TokenService.class);
+        tokenCache = seeded.bean(TokenCache.class);
+        doctorToken = tokenService.generateToken("dr.adams@example.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken("dr.adams@example.com");
+    }
+
+    @Benchmark
+    public boolean validateTokenWarm() {
+        return tokenService.validateToken(doctorToken, "doctor");
+    }
+
+    @Benchmark
+    public boolean validateTokenCold() {
+        tokenCache.clear();
+        return tokenService.validateToken(doctorToken, "doctor");
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.back_end.DTO;
+
+/**
+ * Id of an account looked up by email, as read when resolving bulk-import references.
+ */
+public record AccountRef(Long id, String email) {
+}
@@ -0,0 +1,23 @@
+package com.project.back_end.DTO;
+
+/**
+ * One delta on a doctor's live appointment feed.
+ *
+ * @param type          {@link #UPSERT} when the appointment was booked or changed, {@link #REMOVED}
+ *                      when it was cancelled or moved to another doctor
+ * @param appointmentId id of the appointment
+ * @param appointment   the appointment as it now is, {@code null} for {@link #REMOVED}
+ */
+public record AppointmentChange(String type, Long appointmentId, AppointmentDTO appointment) {
+
+    public static final String UPSERT = "upsert";
+    public static final String REMOVED = "removed";
+
+    public static AppointmentChange upsert(AppointmentDTO appointment) {
+        return new AppointmentChange(UPSERT, appointment.getId(), appointment);
+    }
+
+    public static AppointmentChange removed(Long appointmentId) {
+        return new AppointmentChange(REMOVED, appointmentId, null);
+    }
+}
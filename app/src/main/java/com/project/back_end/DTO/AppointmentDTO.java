@@ -1,6 +1,6 @@
 package com.project.back_end.DTO;
 
-import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -35,6 +35,23 @@ public class AppointmentDTO {
             String patientAddress,
             LocalDateTime appointmentTime,
             int status
+    ) {
+        this(id, doctorId, doctorName, patientId, patientName, patientEmail, patientPhone, patientAddress,
+                appointmentTime, status, null);
+    }
+
+    public AppointmentDTO(
+            Long id,
+            Long doctorId,
+            String doctorName,
+            Long patientId,
+            String patientName,
+            String patientEmail,
+            String patientPhone,
+            String patientAddress,
+            LocalDateTime appointmentTime,
+            int status,
+            Integer slotMinutes
     ) {
         this.id = id;
         this.doctorId = doctorId;
@@ -50,30 +67,7 @@ public class AppointmentDTO {
         // Automatically computed fields
         this.appointmentDate = appointmentTime.toLocalDate();
         this.appointmentTimeOnly = appointmentTime.toLocalTime();
-        this.endTime = appointmentTime.plusHours(1);
-    }
-    public AppointmentDTO(Appointment appointment) {
-        this.id = appointment.getId();
-
-        // Doctor info
-        this.doctorId = appointment.getDoctor().getId();
-        this.doctorName = appointment.getDoctor().getName();
-
-        // Patient info
-        this.patientId = appointment.getPatient().getId();
-        this.patientName = appointment.getPatient().getName();
-        this.patientEmail = appointment.getPatient().getEmail();
-        this.patientPhone = appointment.getPatient().getPhone();
-        this.patientAddress = appointment.getPatient().getAddress();
-
-        // Appointment info
-        this.appointmentTime = appointment.getAppointmentTime();
-        this.status = appointment.getStatus();
-
-        // Automatically computed fields
-        this.appointmentDate = appointment.getAppointmentTime().toLocalDate();
-        this.appointmentTimeOnly = appointment.getAppointmentTime().toLocalTime();
-        this.endTime = appointment.getAppointmentTime().plusHours(1);
+        this.endTime = appointmentTime.plusMinutes(slotMinutes != null ? slotMinutes : Doctor.DEFAULT_SLOT_MINUTES);
     }
 
 // 14. Constructor:
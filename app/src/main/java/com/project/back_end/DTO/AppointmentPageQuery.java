@@ -0,0 +1,18 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDate;
+
+/**
+ * Date window and keyset page requested for an appointment listing. Every field is optional.
+ *
+ * @param from   first day to include
+ * @param to     last day to include
+ * @param cursor continuation cursor returned as "nextCursor" by the previous page
+ * @param limit  page size, capped server-side
+ * @param since  "version" returned by an earlier listing; asks for the appointments changed after it
+ *               instead of a page (patient listings only)
+ */
+public record AppointmentPageQuery(LocalDate from, LocalDate to, String cursor, Integer limit, Long since) {
+
+    public static final AppointmentPageQuery FIRST_PAGE = new AppointmentPageQuery(null, null, null, null, null);
+}
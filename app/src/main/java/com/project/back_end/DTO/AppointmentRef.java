@@ -0,0 +1,7 @@
+package com.project.back_end.DTO;
+
+/**
+ * Patient and doctor of an appointment, as read when recording whose appointment lists changed.
+ */
+public record AppointmentRef(Long appointmentId, Long patientId, Long doctorId) {
+}
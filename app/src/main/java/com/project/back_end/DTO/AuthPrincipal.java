@@ -0,0 +1,11 @@
+package com.project.back_end.DTO;
+
+/**
+ * The identity a verified token resolves to for a given role.
+ *
+ * @param role       "admin", "doctor" or "patient"
+ * @param id         database id of the admin, doctor or patient
+ * @param identifier token subject (admin username or doctor/patient email)
+ */
+public record AuthPrincipal(String role, Long id, String identifier) {
+}
@@ -0,0 +1,12 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * A free slot offered by the earliest-slot search.
+ *
+ * @param slot slot label as listed by the doctor's availability, e.g. "09:00-09:30"
+ */
+public record AvailableSlot(Long doctorId, String doctorName, String specialty,
+                            LocalDateTime start, LocalDateTime end, String slot) {
+}
@@ -0,0 +1,9 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Start of a booked appointment of a doctor, as read by bulk availability scans.
+ */
+public record BookedSlot(Long doctorId, LocalDateTime appointmentTime) {
+}
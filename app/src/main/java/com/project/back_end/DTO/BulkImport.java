@@ -0,0 +1,30 @@
+package com.project.back_end.DTO;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Payload of the admin bulk import. Appointments refer to their doctor and patient by email,
+ * either one imported in the same payload or one already stored.
+ */
+public record BulkImport(List<Doctor> doctors, List<Patient> patients, List<ImportedAppointment> appointments) {
+
+    public record ImportedAppointment(String doctorEmail, String patientEmail, LocalDateTime appointmentTime,
+                                      Integer status) {
+    }
+
+    public List<Doctor> doctors() {
+        return doctors != null ? doctors : List.of();
+    }
+
+    public List<Patient> patients() {
+        return patients != null ? patients : List.of();
+    }
+
+    public List<ImportedAppointment> appointments() {
+        return appointments != null ? appointments : List.of();
+    }
+}
@@ -0,0 +1,16 @@
+package com.project.back_end.DTO;
+
+import com.project.back_end.models.ScheduleException;
+import com.project.back_end.models.ScheduleRule;
+
+import java.util.List;
+
+/**
+ * A doctor's schedule template as read and written through the API.
+ *
+ * @param slotMinutes length of one appointment, a multiple of 15 between 15 and 240
+ * @param rules       weekly recurring working windows
+ * @param exceptions  upcoming time off and extra hours; past ones are not returned
+ */
+public record DoctorSchedule(Integer slotMinutes, List<ScheduleRule> rules, List<ScheduleException> exceptions) {
+}
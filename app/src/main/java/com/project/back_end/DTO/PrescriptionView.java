@@ -0,0 +1,9 @@
+package com.project.back_end.DTO;
+
+/**
+ * The prescription fields the doctor dashboard renders, read straight from the
+ * {@code appointment_dashboard} index without fetching the documents.
+ */
+public record PrescriptionView(String patientName, Long appointmentId, String medication, String dosage,
+                               String doctorNotes) {
+}
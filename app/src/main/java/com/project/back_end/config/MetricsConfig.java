@@ -0,0 +1,19 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Service timers: every public method of a @Timed(SERVICE_CALLS) class is timed and counted,
+// tagged with its class, method and the exception it threw (if any)
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_CALLS = "service.calls";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.back_end.config;
+
+import com.project.back_end.monitoring.LazyLoadGuard;
+import com.project.back_end.monitoring.MongoCommandCounter;
+import com.project.back_end.monitoring.QueryBudgetFilter;
+import com.project.back_end.monitoring.SqlStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+// Per-request query counting: Hibernate reports every prepared statement, the Mongo driver every
+// command; QueryBudgetFilter keeps the tally per request and QueryBudgetAdvice checks it against
+// the route's @QueryBudget. LazyLoadGuard reports associations loaded outside a fetch plan.
+@Configuration
+public class QueryMonitoringConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer lazyLoadGuard(
+            MeterRegistry registry,
+            @Value("${query-budget.fail-on-lazy-load:false}") boolean failOnLazyLoad) {
+        LazyLoadGuard guard = new LazyLoadGuard(registry, failOnLazyLoad);
+        return properties -> properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(guard));
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandCounter(
+            @Value("${query-budget.slow-command-ms:200}") long slowCommandMillis) {
+        return settings -> settings.addCommandListener(new MongoCommandCounter(slowCommandMillis));
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(
+            MeterRegistry registry,
+            @Value("${query-budget.repeat-threshold:3}") int repeatThreshold) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(registry, repeatThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,10 @@
+package com.project.back_end.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs: outbox relay, live feed heartbeats
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
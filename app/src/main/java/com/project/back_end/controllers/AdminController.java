@@ -1,16 +1,28 @@
 
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.BulkImport;
 import com.project.back_end.models.Admin;
+import com.project.back_end.services.BulkImportService;
+import com.project.back_end.services.ExportService;
 import com.project.back_end.services.Services;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("${api.path}"+"admin")
@@ -18,10 +30,48 @@ import java.util.Map;
 public class AdminController {
 
     private final Services services;
+    private final ExportService exportService;
+    private final BulkImportService bulkImportService;
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> adminLogin(@RequestBody Map<String, String> login) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> adminLogin(@RequestBody Map<String, String> login) {
         return services.validateAdmin(login.get("username"), login.get("password"));
     }
-}
 
+    // Reporting export of appointments with their prescriptions, streamed as NDJSON or CSV
+    @GetMapping("/export/{token}")
+    public ResponseEntity<?> exportAppointments(
+            @PathVariable String token,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ResponseEntity<Map<String, String>> validation = services.validateToken(token, "admin");
+        if (!validation.getStatusCode().is2xxSuccessful()) {
+            return validation;
+        }
+
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Format must be ndjson or csv"));
+        }
+
+        StreamingResponseBody body = out -> exportService.exportAppointments(from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+
+    // Bulk onboarding and migrations: doctors, patients and appointments in one all-or-nothing import
+    @PostMapping("/import/{token}")
+    public ResponseEntity<?> importData(@PathVariable String token, @RequestBody BulkImport data) {
+        ResponseEntity<Map<String, String>> validation = services.validateToken(token, "admin");
+        if (!validation.getStatusCode().is2xxSuccessful()) {
+            return validation;
+        }
+        return bulkImportService.importAll(data);
+    }
+}
@@ -1,13 +1,17 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.AppointmentPageQuery;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.monitoring.QueryBudget;
 import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.Services;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.Map;
@@ -20,11 +24,16 @@ public class AppointmentController {
     private final AppointmentService appointmentService;
     private final Services services;
 
+    @QueryBudget(statements = 3)
     @GetMapping("/{date}/{patientName}/{token}")
     public ResponseEntity<Map<String, Object>> getAppointments(
             @PathVariable("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @PathVariable("patientName") String patientName,
-            @PathVariable("token") String token) {
+            @PathVariable("token") String token,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
         try{
             // 1️⃣ Validate token
@@ -33,12 +42,16 @@ public class AppointmentController {
                         .body(Map.of("error", "Invalid or expired token"));
             }
 
-            // 2️⃣ Fetch appointments
-            Map<String, Object> appointments = appointmentService.getAppointment(patientName, date, token);
+            // 2️⃣ Fetch one keyset page of appointments from date (through "to", if given)
+            AppointmentPageQuery query = new AppointmentPageQuery(date, to != null ? to : date, cursor, limit, null);
+            Map<String, Object> appointments = appointmentService.getAppointment(patientName, status, query, token);
 
             // 3️⃣ Return response
             return ResponseEntity.ok(appointments);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "An error occurred while processing the request"));
@@ -46,6 +59,16 @@ public class AppointmentController {
     }
 
 
+    // Live feed of the doctor's appointment changes, replaces polling the day listing
+    @GetMapping(value = "/stream/{token}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAppointments(@PathVariable("token") String token) {
+        SseEmitter emitter = appointmentService.subscribeChanges(token);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     @PostMapping("/{token}")
     public ResponseEntity<Map<String, String>> bookAppointment(@PathVariable String token , @RequestBody Appointment appointment){
         try{
@@ -53,20 +76,19 @@ public class AppointmentController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error" , "Invalid or expired token"));
             }
-            int isValid = services.validateAppointment(appointment);
-            if(isValid == -1 ){
+            // The slot is reserved atomically by the insert itself after an in-memory schedule check
+            int booked = appointmentService.bookAppointment(appointment);
+            if(booked == -1 ){
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(Map.of("error" , "Doctor Does not exist"));
-            }else if(isValid == 0 ){
+            }else if(booked == -2 ){
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error" , "Requested time is not one of the doctor's slots"));
+            }else if(booked == 0 ){
                 return ResponseEntity.status(HttpStatus.CONFLICT)
                         .body(Map.of("error" , "Appointment slot already taken"));
             }
-            if(appointmentService.bookAppointment(appointment) == 1 ){
-                return ResponseEntity.ok(Map.of("message" , "Appointment booked successfully"));
-            } else {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(Map.of("error" , "Failed to book appointment"));
-            }
+            return ResponseEntity.ok(Map.of("message" , "Appointment booked successfully"));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
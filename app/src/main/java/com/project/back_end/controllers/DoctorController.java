@@ -1,17 +1,27 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.DoctorSchedule;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.monitoring.QueryBudget;
+import com.project.back_end.services.DoctorListing;
+import com.project.back_end.services.DoctorScheduleService;
 import com.project.back_end.services.DoctorService;
 import com.project.back_end.services.Services;
+import com.project.back_end.services.SlotSearchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("${api.path}" + "doctor")
@@ -22,7 +32,12 @@ public class DoctorController {
 
     private final Services services;
 
+    private final DoctorScheduleService doctorScheduleService;
+
+    private final SlotSearchService slotSearchService;
+
     // 1. Get Doctor Availability
+    @QueryBudget(statements = 5)
     @GetMapping("/availability/{user}/{doctorId}/{date}/{token}")
     public ResponseEntity<Map<String, Object>> getDoctorAvailability(
             @PathVariable String user,
@@ -45,13 +60,27 @@ public class DoctorController {
     }
 
     // 2. Get List of Doctors
+    // Served from bytes serialized once per change. The strong ETag lets browsers revalidate:
+    // a matching If-None-Match is answered with 304 and no body by Spring.
+    @QueryBudget(statements = 2)
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllDoctors() {
+    public ResponseEntity<?> getAllDoctors(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<Doctor> doctors = doctorService.getDoctors();
-            return ResponseEntity.ok(Map.of("doctors", doctors));
+            DoctorListing listing = doctorService.getDoctorListing();
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(acceptEncoding)) {
+                return response.eTag(listing.gzipEtag())
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .body(listing.gzip());
+            }
+            return response.eTag(listing.etag()).body(listing.json());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
                     .body(Map.of("error", "Failed to fetch doctors"));
         }
     }
@@ -87,12 +116,12 @@ public class DoctorController {
 
     // 4. Doctor Login
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> loginDoctor(@RequestBody Map<String, String> login) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> loginDoctor(@RequestBody Map<String, String> login) {
         try {
             return doctorService.validateDoctor(login.get("email"), login.get("password"));
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Login failed"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Login failed")));
         }
     }
 
@@ -151,6 +180,7 @@ public class DoctorController {
     // /doctor/filter?name=Emily&time=AM&speciality=Dermatologist
     // /doctor/filter?speciality=Dermatologist
     // /doctor/filter (no params -> all doctors)
+    @QueryBudget(statements = 2)
     @GetMapping("/filter")
     public ResponseEntity<Map<String, Object>> filterDoctors(
             @RequestParam(required = false) String name,
@@ -164,4 +194,85 @@ public class DoctorController {
                     .body(Map.of("error", "Failed to filter doctors"));
         }
     }
+
+    // 8. Schedule template of the doctor behind the token: weekly rules, exceptions, slot length
+    @GetMapping("/schedule/{token}")
+    public ResponseEntity<Map<String, Object>> getSchedule(@PathVariable String token) {
+        try {
+            return doctorScheduleService.getSchedule(token);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch schedule"));
+        }
+    }
+
+    @PutMapping("/schedule/{token}")
+    public ResponseEntity<Map<String, Object>> saveSchedule(@PathVariable String token,
+                                                            @RequestBody DoctorSchedule schedule) {
+        try {
+            return doctorScheduleService.saveSchedule(token, schedule);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to save schedule"));
+        }
+    }
+
+    // 9. Earliest free slots across doctors, for patients picking "first available":
+    // /doctor/earliest/{token}?speciality=Cardiologist&time=AM&from=2025-05-01&to=2025-05-14&limit=10
+    // Cold: token, bookings and one batch of three calendar loads
+    @QueryBudget(statements = 5)
+    @GetMapping("/earliest/{token}")
+    public ResponseEntity<Map<String, Object>> getEarliestSlots(
+            @PathVariable String token,
+            @RequestParam(required = false) String speciality,
+            @RequestParam(required = false) String time,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            ResponseEntity<Map<String, String>> validation = services.validateToken(token, "patient");
+            if (validation.getStatusCode() != HttpStatus.OK) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("error", validation.getBody().get("result")));
+            }
+
+            return ResponseEntity.ok(Map.of("slots",
+                    slotSearchService.findEarliest(speciality, time, from, to, limit)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to search slots"));
+        }
+    }
+
+    // Accept-Encoding lists "coding;q=weight" entries: gzip (or its alias x-gzip) is acceptable
+    // unless its weight is 0, and "*" stands in for any coding not listed
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double weight = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        weight = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        weight = 0.0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? weight : Math.max(gzip, weight);
+            } else if (coding.equals("*")) {
+                any = weight;
+            }
+        }
+        Double weight = gzip != null ? gzip : any;
+        return weight != null && weight > 0;
+    }
 }
@@ -1,17 +1,25 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.AppointmentPageQuery;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Patient;
+import com.project.back_end.monitoring.QueryBudget;
+import com.project.back_end.services.PatientAppointmentVersions;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.Services;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/patient")
@@ -21,6 +29,7 @@ public class PatientController {
     private final PatientService patientService;
     private final Services services;
 
+    @QueryBudget(statements = 3)
     @GetMapping("/{token}")
     public ResponseEntity<Map<String, Object>> getPatient(@PathVariable String token) {
         try {
@@ -60,19 +69,29 @@ public class PatientController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody Login login) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> login(@RequestBody Login login) {
         try {
             return services.validatePatientLogin(login);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Login failed"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Login failed")));
         }
     }
 
+    // Listings are keyset-paged: pass back "nextCursor" as ?cursor= to get the next page.
+    // They carry the patient's appointment "version", also sent as ETag: revalidating is a 304
+    // without a query while nothing changed, and ?since=<version> returns only the changes.
+    @QueryBudget(statements = 3)
     @GetMapping("/{id}/{token}")
     public ResponseEntity<Map<String, Object>> getPatientAppointment(
             @PathVariable Long id,
-            @PathVariable String token) {
+            @PathVariable String token,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long since,
+            WebRequest webRequest) {
         try {
             ResponseEntity<Map<String, String>> validation = services.validateToken(token, "patient");
             if (!validation.getStatusCode().is2xxSuccessful()) {
@@ -81,18 +100,31 @@ public class PatientController {
                         : Map.of("error", "Invalid token");
                 return ResponseEntity.status(validation.getStatusCode()).body(body);
             }
-            return patientService.getPatientAppointment(id, token);
+            PatientAppointmentVersions.Version version = patientService.appointmentVersion(token);
+            if (version != null && version.patientId().equals(id)
+                    && webRequest.checkNotModified(version.etag(), version.lastModified())) {
+                return null;
+            }
+            return revalidated(patientService.getPatientAppointment(id, token,
+                    new AppointmentPageQuery(from, to, cursor, limit, since)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to retrieve patient appointments"));
         }
     }
 
+    @QueryBudget(statements = 3)
     @GetMapping("/filter/{token}")
     public ResponseEntity<Map<String, Object>> filterPatientAppointment(
             @PathVariable String token,
             @RequestParam(required = false) String condition,
-            @RequestParam(required = false) String name) {
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long since,
+            WebRequest webRequest) {
         try {
             ResponseEntity<Map<String, String>> validation = services.validateToken(token, "patient");
             if (!validation.getStatusCode().is2xxSuccessful()) {
@@ -101,10 +133,22 @@ public class PatientController {
                         : Map.of("error", "Invalid token");
                 return ResponseEntity.status(validation.getStatusCode()).body(body);
             }
-            return services.filterPatient(condition, name, token);
+            PatientAppointmentVersions.Version version = patientService.appointmentVersion(token);
+            if (version != null && webRequest.checkNotModified(version.etag(), version.lastModified())) {
+                return null;
+            }
+            return revalidated(services.filterPatient(condition, name, token,
+                    new AppointmentPageQuery(from, to, cursor, limit, since)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to filter patient appointments"));
         }
     }
+
+    // Per-patient data: kept only in the patient's own cache and revalidated on every use
+    private static ResponseEntity<Map<String, Object>> revalidated(ResponseEntity<Map<String, Object>> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(response.getBody());
+    }
 }
@@ -1,7 +1,6 @@
 package com.project.back_end.controllers;
 
 import com.project.back_end.models.Prescription;
-import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.PrescriptionService;
 import com.project.back_end.services.Services;
 import jakarta.validation.Valid;
@@ -11,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -20,7 +20,6 @@ public class PrescriptionController {
 
     private final PrescriptionService prescriptionService;
     private final Services services;
-    private final AppointmentService appointmentService;
 
     @PostMapping("/{token}")
     public ResponseEntity<Map<String, String>> savePrescription(
@@ -35,15 +34,32 @@ public class PrescriptionController {
                 return ResponseEntity.status(validation.getStatusCode()).body(body);
             }
 
-            ResponseEntity<Map<String, String>> response = prescriptionService.savePrescription(prescription);
-            if (response.getStatusCode().is2xxSuccessful()) {
-                appointmentService.changeStatus(prescription.getAppointmentId(), 1);
+            // Completes the appointment in the same local transaction
+            return prescriptionService.savePrescription(prescription);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to save prescription"));
+        }
+    }
+
+    // Bulk variant for end-of-day submissions: a JSON array of prescriptions, per-item results
+    @PostMapping("/bulk/{token}")
+    public ResponseEntity<Map<String, Object>> savePrescriptions(
+            @PathVariable String token,
+            @RequestBody List<Prescription> prescriptions) {
+        try {
+            ResponseEntity<Map<String, String>> validation = services.validateToken(token, "doctor");
+            if (!validation.getStatusCode().is2xxSuccessful()) {
+                Map<String, Object> body = validation.getBody() != null
+                        ? new HashMap<>(validation.getBody())
+                        : Map.of("error", "Invalid token");
+                return ResponseEntity.status(validation.getStatusCode()).body(body);
             }
 
-            return response;
+            return prescriptionService.savePrescriptions(prescriptions);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("message", "Failed to save prescription"));
+                    .body(Map.of("message", "Failed to save prescriptions"));
         }
     }
 
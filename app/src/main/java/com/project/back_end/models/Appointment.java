@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.ToString;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -11,20 +12,36 @@ import java.time.LocalTime;
 
 @Data
 @Entity
-@Table(name = "appointment")
+@Table(name = "appointment",
+        // InnoDB secondary indexes carry the primary key, so these also serve (time, id) keyset order
+        uniqueConstraints = @UniqueConstraint(name = "uk_appointment_doctor_time",
+                columnNames = {"doctor_id", "appointment_time"}),
+        indexes = {
+                @Index(name = "idx_appointment_patient_time", columnList = "patient_id, appointment_time"),
+                @Index(name = "idx_appointment_patient_status_time", columnList = "patient_id, status, appointment_time")
+        })
 public class Appointment {
 
+    // Fetch plan: listings project straight into AppointmentDTO, writes and status changes only
+    // need the ids, which the lazy references carry.
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "appointment_id")
+    @TableGenerator(name = "appointment_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.KEY_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "appointment",
+            allocationSize = IdAllocation.BLOCK_SIZE)
+    @Column(columnDefinition = IdAllocation.ID_COLUMN_DEFINITION)
     private Long id;
 
     @NotNull(message = "Doctor is required")
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
     private Doctor doctor;
 
     @NotNull(message = "Patient is required")
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
 
@@ -41,9 +58,9 @@ public class Appointment {
     // Helper Methods (Not stored)
     // ---------------------------
 
-    @Transient
-    public LocalDateTime getEndTime() {
-        return appointmentTime != null ? appointmentTime.plusHours(1) : null;
+    // Takes the slot length rather than reading it from the lazy doctor
+    public LocalDateTime getEndTime(int slotMinutes) {
+        return appointmentTime != null ? appointmentTime.plusMinutes(slotMinutes) : null;
     }
 
     @Transient
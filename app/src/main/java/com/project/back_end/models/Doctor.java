@@ -1,22 +1,40 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Data
 @Entity
 @Table(name = "doctor")
+@NamedEntityGraph(name = Doctor.WITH_AVAILABLE_TIMES, attributeNodes = @NamedAttributeNode("availableTimes"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor")
 public class Doctor {
 
+    public static final int DEFAULT_SLOT_MINUTES = 60;
+
+    // Fetch plan of the use cases that read or replace the slot list
+    public static final String WITH_AVAILABLE_TIMES = "Doctor.withAvailableTimes";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "doctor_id")
+    @TableGenerator(name = "doctor_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.KEY_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "doctor",
+            allocationSize = IdAllocation.BLOCK_SIZE)
+    @Column(columnDefinition = IdAllocation.ID_COLUMN_DEFINITION)
     private Long id;
 
     @NotNull(message = "Name is required")
@@ -24,6 +42,12 @@ public class Doctor {
     @Column(nullable = false, length = 100)
     private String name;
 
+    // Lower-cased copy of name maintained by the database, so name searches skip LOWER() per row
+    @JsonIgnore
+    @Column(name = "name_lower", length = 100, insertable = false, updatable = false,
+            columnDefinition = "varchar(100) generated always as (lower(name))")
+    private String nameLower;
+
     @NotNull(message = "Specialty is required")
     @Size(min = 3, max = 50, message = "Specialty must be between 3 and 50 characters")
     @Column(nullable = false, length = 50)
@@ -44,8 +68,21 @@ public class Doctor {
     @Column(nullable = false, length = 12)
     private String phone;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Lazy: only loaded through the WITH_AVAILABLE_TIMES plan or a fetch join
+    @ToString.Exclude
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor.availableTimes")
     @CollectionTable(name = "doctor_available_times", joinColumns = @JoinColumn(name = "doctor_id"))
     @Column(name = "available_times")
     private List<String> availableTimes;
+
+    // Length of one appointment; null keeps the historical one hour
+    @Min(value = 15, message = "Slot length must be at least 15 minutes")
+    @Max(value = 240, message = "Slot length must be at most 240 minutes")
+    @Column(name = "slot_minutes")
+    private Integer slotMinutes;
+
+    public int slotLength() {
+        return slotMinutes != null ? slotMinutes : DEFAULT_SLOT_MINUTES;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.project.back_end.models;
+
+/**
+ * Shared settings of the table-based id generators of bulk-loaded entities.
+ * <p>
+ * Ids of doctors, patients and appointments are handed out in blocks of {@link #BLOCK_SIZE}
+ * from one row per entity in {@link #TABLE} (pooled optimizer), so Hibernate knows an id at
+ * persist time and can batch the inserts, which {@code IDENTITY} columns rule out. The id
+ * columns stay auto-increment so plain SQL seeds without ids still load.
+ */
+public final class IdAllocation {
+
+    public static final String TABLE = "id_allocation";
+    public static final String KEY_COLUMN = "entity";
+    public static final String VALUE_COLUMN = "next_id";
+    public static final int BLOCK_SIZE = 50;
+
+    // Keeps the auto-increment default next to the generator-assigned ids
+    public static final String ID_COLUMN_DEFINITION = "bigint auto_increment";
+
+    private IdAllocation() {
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending write to another store (MongoDB), recorded in the same MySQL transaction as the
+ * change that caused it and applied later by {@code OutboxRelay}.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_event",
+        indexes = @Index(name = "idx_outbox_event_pending", columnList = "processed_at, parked_at, next_attempt_at"))
+public class OutboxEvent {
+
+    public static final String PRESCRIPTION_SAVED = "PRESCRIPTION_SAVED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    // Id of the target document, doubles as the idempotency key of the write
+    @Column(nullable = false, length = 64)
+    private String aggregateId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime processedAt;
+
+    // Set once the event has failed too often to retry; parked events wait for an operator
+    private LocalDateTime parkedAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    public OutboxEvent(String type, String aggregateId, String payload) {
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
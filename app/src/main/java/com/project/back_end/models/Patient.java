@@ -1,5 +1,6 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -7,14 +8,22 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @Table(name = "patient")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "patient")
 public class Patient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "patient_id")
+    @TableGenerator(name = "patient_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.KEY_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "patient",
+            allocationSize = IdAllocation.BLOCK_SIZE)
+    @Column(columnDefinition = IdAllocation.ID_COLUMN_DEFINITION)
     private Long id;
 
     @NotNull(message = "Name is required")
@@ -22,6 +31,12 @@ public class Patient {
     @Column(nullable = false, length = 100)
     private String name;
 
+    // Lower-cased copy of name maintained by the database, so name searches skip LOWER() per row
+    @JsonIgnore
+    @Column(name = "name_lower", length = 100, insertable = false, updatable = false,
+            columnDefinition = "varchar(100) generated always as (lower(name))")
+    private String nameLower;
+
     @NotNull(message = "Email is required")
     @Email(message = "Email must be valid")
     @Column(nullable = false, unique = true, length = 120)
@@ -2,6 +2,8 @@ package com.project.back_end.models;
 
 import jakarta.persistence.OneToOne;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,7 +12,16 @@ import lombok.AllArgsConstructor;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import java.time.LocalDateTime;
+
+// appointment_dashboard leads with appointmentId and carries every field the dashboard renders, so
+// the lookup by appointment is answered from the index alone (see PrescriptionRepository)
 @Document(collection = "prescription")
+@CompoundIndexes({
+        @CompoundIndex(name = "appointment_dashboard",
+                def = "{'appointmentId': 1, 'patientName': 1, 'medication': 1, 'dosage': 1, 'doctorNotes': 1}"),
+        @CompoundIndex(name = "patient_created", def = "{'patientName': 1, 'createdAt': -1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,6 +48,9 @@ public class Prescription {
     @Size(max = 200)
     private String doctorNotes;
 
+    // Set by the server when the prescription is accepted
+    private LocalDateTime createdAt;
+
     // Custom constructor (without ID & doctorNotes)
     public Prescription(String patientName, Long appointmentId, String medication, String dosage) {
         this.patientName = patientName;
@@ -0,0 +1,53 @@
+package com.project.back_end.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A one-off change to a doctor's schedule on a given date. An unavailable exception removes the
+ * slots starting inside its window (the whole day when it has no times, e.g. a holiday); an
+ * available one adds extra slots for the window.
+ */
+@Data
+@Entity
+@Table(name = "doctor_schedule_exception",
+        indexes = @Index(name = "idx_schedule_exception_doctor_date", columnList = "doctor_id, exception_date"))
+public class ScheduleException {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long id;
+
+    @JsonIgnore
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @NotNull(message = "Date is required")
+    @Column(name = "exception_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    // false = time off, true = extra working hours
+    @Column(nullable = false)
+    private boolean available;
+
+    @Column(length = 100)
+    private String reason;
+
+    @JsonIgnore
+    public boolean isWholeDay() {
+        return startTime == null || endTime == null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.back_end.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A weekly recurring working window of a doctor, e.g. every Monday 09:00-12:00, cut into slots
+ * of the doctor's slot length. {@code validFrom}/{@code validUntil} optionally bound the dates
+ * the rule applies to (both inclusive).
+ */
+@Data
+@Entity
+@Table(name = "doctor_schedule_rule",
+        indexes = @Index(name = "idx_schedule_rule_doctor", columnList = "doctor_id"))
+public class ScheduleRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long id;
+
+    @JsonIgnore
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @NotNull(message = "Day of week is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false, length = 9)
+    private DayOfWeek dayOfWeek;
+
+    @NotNull(message = "Start time is required")
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @NotNull(message = "End time is required")
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "valid_from")
+    private LocalDate validFrom;
+
+    @Column(name = "valid_until")
+    private LocalDate validUntil;
+
+    public boolean appliesTo(LocalDate date) {
+        return date.getDayOfWeek() == dayOfWeek
+                && (validFrom == null || !date.isBefore(validFrom))
+                && (validUntil == null || !date.isAfter(validUntil));
+    }
+}
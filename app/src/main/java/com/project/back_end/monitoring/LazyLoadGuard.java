@@ -0,0 +1,71 @@
+package com.project.back_end.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports associations loaded lazily, that is outside the entity graph or fetch join of the
+ * query that loaded their owner: an uninitialized proxy being initialized or a lazy collection
+ * being read. Each is logged and counted in {@code query.lazy.loads}; with
+ * {@code query-budget.fail-on-lazy-load=true} (the test profile) it fails with
+ * {@link UnplannedFetchException} before the extra statement runs.
+ */
+public class LazyLoadGuard implements Integrator, LoadEventListener, InitializeCollectionEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyLoadGuard.class);
+
+    private final MeterRegistry registry;
+    private final boolean failOnLazyLoad;
+
+    public LazyLoadGuard(MeterRegistry registry, boolean failOnLazyLoad) {
+        this.registry = registry;
+        this.failOnLazyLoad = failOnLazyLoad;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        listeners.prependListeners(EventType.LOAD, this);
+        listeners.prependListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) {
+        // Proxies initialize through an immediate load; finds and fetches use the other load types
+        if (loadType == IMMEDIATE_LOAD) {
+            unplanned(event.getEntityClassName() + "#" + event.getEntityId(), event.getEntityClassName());
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        unplanned(role + "#" + event.getAffectedOwnerIdOrNull(), role);
+    }
+
+    private void unplanned(String what, String role) {
+        registry.counter("query.lazy.loads", "role", role).increment();
+        String message = "Lazy load of " + what + " outside a fetch plan";
+        if (failOnLazyLoad) {
+            throw new UnplannedFetchException(message);
+        }
+        log.warn(message);
+    }
+}
@@ -0,0 +1,32 @@
+package com.project.back_end.monitoring;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts Mongo commands against the current request and flags the slow ones. The synchronous
+ * driver reports completions on the thread that issued the command.
+ */
+public class MongoCommandCounter implements CommandListener {
+
+    private final long slowMillis;
+
+    public MongoCommandCounter(long slowMillis) {
+        this.slowMillis = slowMillis;
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        RequestQueries.mongoCommand(event.getCommandName() + " " + event.getDatabaseName(),
+                event.getElapsedTime(TimeUnit.MILLISECONDS), slowMillis);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        RequestQueries.mongoCommand(event.getCommandName() + " " + event.getDatabaseName() + " failed",
+                event.getElapsedTime(TimeUnit.MILLISECONDS), slowMillis);
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.back_end.monitoring;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements and Mongo commands one request to the annotated route may issue, counted
+ * on the request thread. A request over budget is logged with its route and a sample of its
+ * statements; with {@code query-budget.fail-on-violation=true} (the test profile) it fails
+ * with {@link QueryBudgetExceededException} instead. On a class, applies to every route
+ * without its own budget.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryBudget {
+
+    int statements();
+
+    int mongoCommands() default 0;
+}
@@ -0,0 +1,77 @@
+package com.project.back_end.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Checks the statements of a {@link QueryBudget} route once its handler has returned, before the
+ * body is written, so a failing check still turns into a clean error response.
+ */
+@RestControllerAdvice
+public class QueryBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String VIOLATIONS = "query.budget.violations";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetAdvice.class);
+    private static final int SAMPLE_SIZE = 5;
+
+    private final MeterRegistry registry;
+    private final boolean failOnViolation;
+
+    public QueryBudgetAdvice(MeterRegistry registry,
+                             @Value("${query-budget.fail-on-violation:false}") boolean failOnViolation) {
+        this.registry = registry;
+        this.failOnViolation = failOnViolation;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return budgetOf(returnType) != null;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        // Async dispatches run outside the request's tally
+        RequestQueries queries = RequestQueries.current();
+        QueryBudget budget = budgetOf(returnType);
+        if (queries == null || (queries.statementCount() <= budget.statements()
+                && queries.mongoCommandCount() <= budget.mongoCommands())) {
+            return body;
+        }
+
+        String route = request instanceof ServletServerHttpRequest servlet
+                ? RequestQueries.route(servlet.getServletRequest())
+                : request.getMethod() + " " + request.getURI().getPath();
+        registry.counter(VIOLATIONS, "route", route, "kind", "budget").increment();
+        String message = String.format("Query budget exceeded on %s: %d SQL statements (budget %d), "
+                        + "%d Mongo commands (budget %d); most issued: %s", route, queries.statementCount(),
+                budget.statements(), queries.mongoCommandCount(), budget.mongoCommands(),
+                queries.sample(SAMPLE_SIZE));
+        if (failOnViolation) {
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn(message);
+        return body;
+    }
+
+    private static QueryBudget budgetOf(MethodParameter returnType) {
+        QueryBudget budget = returnType.getMethod() != null
+                ? AnnotatedElementUtils.findMergedAnnotation(returnType.getMethod(), QueryBudget.class)
+                : null;
+        return budget != null ? budget
+                : AnnotatedElementUtils.findMergedAnnotation(returnType.getContainingClass(), QueryBudget.class);
+    }
+}
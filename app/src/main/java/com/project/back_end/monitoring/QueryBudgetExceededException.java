@@ -0,0 +1,11 @@
+package com.project.back_end.monitoring;
+
+/**
+ * A request issued more statements than its route's {@link QueryBudget}.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.back_end.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Opens the per-request statement tally and, once the request is done, logs identical SQL
+ * repeated {@code repeatThreshold} times or more (the usual sign of an N+1 load) and Mongo
+ * commands over the slow threshold. Slow SQL is logged by Hibernate itself
+ * ({@code hibernate.log_slow_query}); budgets are checked by {@link QueryBudgetAdvice} before
+ * the response body is written.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final MeterRegistry registry;
+    private final int repeatThreshold;
+
+    public QueryBudgetFilter(MeterRegistry registry, int repeatThreshold) {
+        this.registry = registry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueries queries = RequestQueries.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueries.end();
+            report(RequestQueries.route(request), queries);
+        }
+    }
+
+    private void report(String route, RequestQueries queries) {
+        log.debug("{}: {} SQL statements, {} Mongo commands", route, queries.statementCount(),
+                queries.mongoCommandCount());
+
+        Map<String, Integer> repeated = queries.repeated(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            registry.counter(QueryBudgetAdvice.VIOLATIONS, "route", route, "kind", "repeated").increment();
+            repeated.forEach((sql, count) -> log.warn("Possible N+1 on {}: {} x {}", route, count, sql));
+        }
+        if (!queries.slowCommands().isEmpty()) {
+            registry.counter(QueryBudgetAdvice.VIOLATIONS, "route", route, "kind", "slow").increment();
+            log.warn("Slow Mongo commands on {}: {}", route, queries.slowCommands());
+        }
+    }
+}
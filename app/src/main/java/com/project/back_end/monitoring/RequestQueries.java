@@ -0,0 +1,107 @@
+package com.project.back_end.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL statements and Mongo commands issued by the current request thread. Work handed to other
+ * threads (async logins, streamed exports, SSE) is not counted.
+ */
+public final class RequestQueries {
+
+    private static final ThreadLocal<RequestQueries> CURRENT = new ThreadLocal<>();
+
+    // Distinct statement texts kept per request, so a runaway loop cannot grow the map forever
+    private static final int MAX_DISTINCT = 500;
+
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    private final List<String> slowCommands = new ArrayList<>();
+    private int statementCount;
+    private int mongoCommandCount;
+
+    private RequestQueries() {
+    }
+
+    static RequestQueries begin() {
+        RequestQueries queries = new RequestQueries();
+        CURRENT.set(queries);
+        return queries;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestQueries current() {
+        return CURRENT.get();
+    }
+
+    // Method and mapped pattern, so metrics are not tagged with every id and token
+    static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    static void statement(String sql) {
+        RequestQueries queries = CURRENT.get();
+        if (queries == null) {
+            return;
+        }
+        queries.statementCount++;
+        if (queries.statements.size() < MAX_DISTINCT || queries.statements.containsKey(sql)) {
+            queries.statements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    static void mongoCommand(String command, long elapsedMillis, long slowMillis) {
+        RequestQueries queries = CURRENT.get();
+        if (queries == null) {
+            return;
+        }
+        queries.mongoCommandCount++;
+        if (elapsedMillis >= slowMillis) {
+            queries.slowCommands.add(command + " (" + elapsedMillis + " ms)");
+        }
+    }
+
+    public int statementCount() {
+        return statementCount;
+    }
+
+    public int mongoCommandCount() {
+        return mongoCommandCount;
+    }
+
+    /**
+     * Statement texts issued at least {@code times} times, with their counts.
+     */
+    public Map<String, Integer> repeated(int times) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statements.forEach((sql, count) -> {
+            if (count >= times) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+
+    public List<String> slowCommands() {
+        return slowCommands;
+    }
+
+    /**
+     * The first {@code limit} distinct statements, most repeated first.
+     */
+    public List<String> sample(int limit) {
+        return statements.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> entry.getValue() + " x " + entry.getKey())
+                .toList();
+    }
+}
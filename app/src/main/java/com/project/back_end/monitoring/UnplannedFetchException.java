@@ -0,0 +1,11 @@
+package com.project.back_end.monitoring;
+
+/**
+ * An association was loaded lazily instead of through the fetch plan of its use case.
+ */
+public class UnplannedFetchException extends RuntimeException {
+
+    public UnplannedFetchException(String message) {
+        super(message);
+    }
+}
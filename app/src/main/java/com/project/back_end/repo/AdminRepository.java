@@ -1,12 +1,30 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Admin;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface AdminRepository extends JpaRepository<Admin, Long> {
 
+    // Query-cached: every admin token check goes through it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "account-lookups")
+    })
     public Admin findByUsername(String username);
 
+    // Replaces a password only if it is still the value that was verified
+    @Modifying
+    @Transactional
+    @Query("UPDATE Admin a SET a.passwordHash = :hash WHERE a.id = :id AND a.passwordHash = :previous")
+    int updatePassword(@Param("id") Integer id, @Param("previous") String previous, @Param("hash") String hash);
+
 }
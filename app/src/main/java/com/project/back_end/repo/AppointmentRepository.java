@@ -1,6 +1,10 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentRef;
+import com.project.back_end.DTO.BookedSlot;
 import com.project.back_end.models.Appointment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +12,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,53 +22,99 @@ public interface AppointmentRepository extends JpaRepository<Appointment , Long>
     // This interface defines a repository for managing Appointment entities in a Spring Data JPA application.
     // It extends JpaRepository, which provides built-in methods for CRUD operations and allows for custom query methods.
 
-    @Query("select a from Appointment a LEFT JOIN FETCH a.doctor d WHERE d.id = :doctorId "+
+    // Associations are lazy: the rows carry doctor and patient references (ids only) unless a
+    // method below names a fetch plan, an entity graph or a JOIN FETCH.
+
+    @Query("select a from Appointment a WHERE a.doctor.id = :doctorId "+
         "AND a.appointmentTime BETWEEN :start AND :end")
     public List<Appointment> findByDoctorIdAndAppointmentTimeBetween(
             @Param("doctorId") Long doctorId,
             @Param("start") java.time.LocalDateTime start,
             @Param("end") java.time.LocalDateTime end
     );
-    @Query("SELECT a FROM Appointment a " +
-            "LEFT JOIN FETCH a.doctor d " +
-            "LEFT JOIN FETCH a.patient p " +
-            "WHERE d.id = :doctorId " +
-            "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%')) " +
+    // Availability check: only the booked starts of one doctor's day
+    @Query("SELECT a.appointmentTime FROM Appointment a WHERE a.doctor.id = :doctorId " +
             "AND a.appointmentTime BETWEEN :start AND :end")
-    public List <Appointment> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-            @Param("doctorId") Long doctorId,
-            @Param("patientName") String patientName,
-            @Param("start") java.time.LocalDateTime start,
-            @Param("end") java.time.LocalDateTime end
-    );
+    List<LocalDateTime> findBookedTimes(@Param("doctorId") Long doctorId,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end);
+
+    // Booked starts of many doctors in one pass over the (doctor_id, appointment_time) key
+    @Query("SELECT new com.project.back_end.DTO.BookedSlot(a.doctor.id, a.appointmentTime) FROM Appointment a " +
+            "WHERE a.doctor.id IN :doctorIds AND a.appointmentTime >= :from AND a.appointmentTime < :until")
+    List<BookedSlot> findBookedSlots(@Param("doctorIds") Collection<Long> doctorIds,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("until") LocalDateTime until);
+
+    // Patients and doctors of appointments changed by id-only writes (status updates)
+    @Query("SELECT new com.project.back_end.DTO.AppointmentRef(a.id, a.patient.id, a.doctor.id) FROM Appointment a " +
+            "WHERE a.id IN :ids")
+    List<AppointmentRef> findRefsByIdIn(@Param("ids") Collection<Long> ids);
 
     @Modifying
     @Transactional
     @Query("DELETE FROM Appointment a WHERE a.doctor.id = :doctorId")
     void deleteAllByDoctorId(@Param("doctorId") Long doctorId);
 
-    List<Appointment> findByPatientId(Long patientId);
+    // Dashboard listings, projected straight into AppointmentDTO with one join so no
+    // Appointment/Doctor/Patient entities are hydrated. Filters are optional (null = any) and
+    // pages are seeks on (appointment_time, id): rows strictly after the cursor, in that order.
 
-    List<Appointment> findByPatient_IdAndStatusOrderByAppointmentTimeAsc(Long patientId, int status);
+    String APPOINTMENT_DTO_SELECT = "SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+            "a.id, d.id, d.name, p.id, p.name, p.email, p.phone, p.address, a.appointmentTime, a.status, d.slotMinutes) " +
+            "FROM Appointment a JOIN a.doctor d JOIN a.patient p ";
 
-    @Query("SELECT a FROM Appointment a " +
-            "LEFT JOIN a.doctor d " +
-            "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
-            "AND a.patient.id = :patientId")
-    List<Appointment> filterByDoctorNameAndPatientId(
+    String KEYSET_PAGE = "AND a.appointmentTime >= :from AND a.appointmentTime < :until " +
+            "AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId)) " +
+            "ORDER BY a.appointmentTime, a.id";
+
+    @Query(APPOINTMENT_DTO_SELECT +
+            "WHERE p.id = :patientId " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:doctorName IS NULL OR d.nameLower LIKE CONCAT('%', LOWER(:doctorName), '%')) " +
+            KEYSET_PAGE)
+    List<AppointmentDTO> findDtoPageByPatientId(
+            @Param("patientId") Long patientId,
+            @Param("status") Integer status,
             @Param("doctorName") String doctorName,
-            @Param("patientId") Long patientId
+            @Param("from") LocalDateTime from,
+            @Param("until") LocalDateTime until,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId,
+            Limit limit
     );
 
-    @Query("SELECT a FROM Appointment a " +
-            "LEFT JOIN a.doctor d " +
-            "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
-            "AND a.patient.id = :patientId " +
-            "AND a.status = :status")
-    List<Appointment> filterByDoctorNameAndPatientIdAndStatus(
-            @Param("doctorName") String doctorName,
-            @Param("patientId") Long patientId,
-            @Param("status") int status
+    @Query(APPOINTMENT_DTO_SELECT +
+            "WHERE d.id = :doctorId " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:patientName IS NULL OR p.nameLower LIKE CONCAT('%', LOWER(:patientName), '%')) " +
+            KEYSET_PAGE)
+    List<AppointmentDTO> findDtoPageByDoctorId(
+            @Param("doctorId") Long doctorId,
+            @Param("status") Integer status,
+            @Param("patientName") String patientName,
+            @Param("from") LocalDateTime from,
+            @Param("until") LocalDateTime until,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
+
+    @Query(APPOINTMENT_DTO_SELECT + "WHERE a.id IN :ids")
+    List<AppointmentDTO> findDtoByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Export feed: every appointment in the range, one keyset chunk per call. Each chunk is a
+    // short query of its own, so no connection or cursor is held while the chunk is written out.
+    @Query(APPOINTMENT_DTO_SELECT +
+            "WHERE a.appointmentTime >= :from AND a.appointmentTime < :until " +
+            "AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId)) " +
+            "ORDER BY a.appointmentTime, a.id")
+    List<AppointmentDTO> findDtoChunkBetween(
+            @Param("from") LocalDateTime from,
+            @Param("until") LocalDateTime until,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId,
+            Limit limit
     );
 
     @Modifying
@@ -70,4 +122,9 @@ public interface AppointmentRepository extends JpaRepository<Appointment , Long>
     @Query("UPDATE Appointment a SET a.status = :status WHERE a.id = :id")
     void updateStatus(@Param("status") int status, @Param("id") Long id);
 
+    @Modifying
+    @Transactional
+    @Query("UPDATE Appointment a SET a.status = :status WHERE a.id IN :ids")
+    int updateStatusByIdIn(@Param("status") int status, @Param("ids") Collection<Long> ids);
+
 }
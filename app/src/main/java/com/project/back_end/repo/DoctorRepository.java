@@ -1,26 +1,41 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.AccountRef;
 import com.project.back_end.models.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
-    // 1️⃣ Find a doctor by email
+    // 1️⃣ Find a doctor by email (query-cached: every doctor token check goes through it)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "account-lookups")
+    })
     Doctor findByEmail(String email);
 
-    // 2️⃣ Find doctors by partial name match
-    @Query("SELECT d FROM Doctor d WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    // 2️⃣ Find doctors by partial name match; listings render the slots, so they come in the same query
+    @EntityGraph(Doctor.WITH_AVAILABLE_TIMES)
+    @Query("SELECT d FROM Doctor d WHERE d.nameLower LIKE CONCAT('%', LOWER(:name), '%')")
     List<Doctor> findByNameLike(@Param("name") String name);
 
     // 3️⃣ Filter doctors by partial name and exact specialty (case-insensitive)
+    @EntityGraph(Doctor.WITH_AVAILABLE_TIMES)
     @Query("SELECT d FROM Doctor d " +
-            "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
+            "WHERE d.nameLower LIKE CONCAT('%', LOWER(:name), '%') " +
             "AND LOWER(d.specialty) = LOWER(:specialty)")
     List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(
             @Param("name") String name,
@@ -28,6 +43,28 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     );
 
     // 4️⃣ Find doctors by specialty, ignoring case
+    @EntityGraph(Doctor.WITH_AVAILABLE_TIMES)
     List<Doctor> findBySpecialtyIgnoreCase(String specialty);
 
-}
\ No newline at end of file
+    // 5️⃣ Load every doctor with its available times in one query
+    @Query("SELECT DISTINCT d FROM Doctor d LEFT JOIN FETCH d.availableTimes")
+    List<Doctor> findAllWithAvailableTimes();
+
+    // 6️⃣ One doctor with its available times, for calendar builds and profile updates
+    @EntityGraph(Doctor.WITH_AVAILABLE_TIMES)
+    Optional<Doctor> findWithAvailableTimesById(Long id);
+
+    @EntityGraph(Doctor.WITH_AVAILABLE_TIMES)
+    List<Doctor> findWithAvailableTimesByIdIn(Collection<Long> ids);
+
+    // 7️⃣ Replace a password only if it is still the value that was verified
+    @Modifying
+    @Transactional
+    @Query("UPDATE Doctor d SET d.password = :hash WHERE d.id = :id AND d.password = :previous")
+    int updatePassword(@Param("id") Long id, @Param("previous") String previous, @Param("hash") String hash);
+
+    // 8️⃣ Ids of the accounts among the given emails, for bulk-import references
+    @Query("SELECT new com.project.back_end.DTO.AccountRef(d.id, d.email) FROM Doctor d WHERE d.email IN :emails")
+    List<AccountRef> findRefsByEmailIn(@Param("emails") Collection<String> emails);
+
+}
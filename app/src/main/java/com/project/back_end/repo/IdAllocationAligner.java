@@ -0,0 +1,60 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.IdAllocation;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves each id generator past the ids already in its table, so rows inserted with
+ * auto-increment ids (the IDENTITY era, SQL seeds) never collide with the blocks the pooled
+ * generators hand out. Runs once the schema is up, before the web server takes requests.
+ * <p>
+ * Rows loaded with plain SQL while the application runs are not seen until {@link #align()}
+ * runs again; bulk loads should go through the admin import instead.
+ */
+@Component
+public class IdAllocationAligner implements InitializingBean {
+
+    // Generator key -> table whose ids it allocates
+    private static final Map<String, String> TABLES = Map.of(
+            "doctor", "doctor",
+            "patient", "patient",
+            "appointment", "appointment");
+
+    private final JdbcTemplate jdbc;
+
+    // Injected only so the schema exists before alignment runs
+    public IdAllocationAligner(JdbcTemplate jdbc, EntityManagerFactory entityManagerFactory) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        align();
+    }
+
+    public void align() {
+        TABLES.forEach((key, table) -> {
+            Long max = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            if (max == null || max == 0) {
+                return;
+            }
+            // The pooled optimizer hands out the block ending at the stored value, so stay a block ahead
+            long next = max + IdAllocation.BLOCK_SIZE + 1;
+            List<Long> stored = jdbc.queryForList("SELECT " + IdAllocation.VALUE_COLUMN + " FROM " + IdAllocation.TABLE
+                    + " WHERE " + IdAllocation.KEY_COLUMN + " = ?", Long.class, key);
+            if (stored.isEmpty()) {
+                jdbc.update("INSERT INTO " + IdAllocation.TABLE + " (" + IdAllocation.KEY_COLUMN + ", "
+                        + IdAllocation.VALUE_COLUMN + ") VALUES (?, ?)", key, next);
+            } else if (stored.get(0) < next) {
+                jdbc.update("UPDATE " + IdAllocation.TABLE + " SET " + IdAllocation.VALUE_COLUMN + " = ? WHERE "
+                        + IdAllocation.KEY_COLUMN + " = ? AND " + IdAllocation.VALUE_COLUMN + " < ?", next, key, next);
+            }
+        });
+    }
+}
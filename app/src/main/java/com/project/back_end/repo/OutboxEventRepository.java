@@ -0,0 +1,37 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest pending events whose retry delay has passed, locked for the caller's transaction.
+    // Rows another relay instance holds are skipped (FOR UPDATE SKIP LOCKED), not waited for.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.parkedAt IS NULL " +
+            "AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<OutboxEvent> claimDue(@Param("now") LocalDateTime now, Limit limit);
+
+    long countByProcessedAtIsNull();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,15 +1,39 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.AccountRef;
 import com.project.back_end.models.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient , Long> {
 
+    // Query-cached: every patient token check goes through it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "account-lookups")
+    })
     public Patient findByEmail(String email);
     public Patient findByEmailOrPhone(String email , String phone);
 
+    // Replaces a password only if it is still the value that was verified
+    @Modifying
+    @Transactional
+    @Query("UPDATE Patient p SET p.password = :hash WHERE p.id = :id AND p.password = :previous")
+    int updatePassword(@Param("id") Long id, @Param("previous") String previous, @Param("hash") String hash);
 
-}
+    // Ids of the accounts among the given emails, for bulk-import references
+    @Query("SELECT new com.project.back_end.DTO.AccountRef(p.id, p.email) FROM Patient p WHERE p.email IN :emails")
+    List<AccountRef> findRefsByEmailIn(@Param("emails") Collection<String> emails);
 
+}
@@ -1,7 +1,10 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.PrescriptionView;
 import com.project.back_end.models.Prescription;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 
@@ -9,5 +12,16 @@ public interface PrescriptionRepository extends MongoRepository<Prescription, St
     // Custom query method to find prescriptions by appointment ID
     List<Prescription> findByAppointmentId(Long appointmentId);
 
+    // Covered by the appointment_dashboard index: _id is excluded and every projected field is in the key
+    @Query(value = "{ 'appointmentId': ?0 }",
+            fields = "{ '_id': 0, 'patientName': 1, 'appointmentId': 1, 'medication': 1, 'dosage': 1, 'doctorNotes': 1 }")
+    List<PrescriptionView> findViewByAppointmentId(Long appointmentId);
+
+    // A patient's most recent prescriptions, filtered and sorted on the patient_created index
+    @Query(value = "{ 'patientName': ?0 }",
+            fields = "{ '_id': 0, 'patientName': 1, 'appointmentId': 1, 'medication': 1, 'dosage': 1, 'doctorNotes': 1 }",
+            sort = "{ 'createdAt': -1 }")
+    List<PrescriptionView> findViewByPatientName(String patientName, Limit limit);
+
 }
 
@@ -0,0 +1,34 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.ScheduleException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ScheduleExceptionRepository extends JpaRepository<ScheduleException, Long> {
+
+    // Exceptions from a date on; past ones no longer affect any calendar
+    List<ScheduleException> findByDateGreaterThanEqual(LocalDate from);
+
+    List<ScheduleException> findByDoctorIdAndDateGreaterThanEqual(Long doctorId, LocalDate from);
+
+    List<ScheduleException> findByDoctorIdInAndDateGreaterThanEqual(Collection<Long> doctorIds, LocalDate from);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ScheduleException e WHERE e.doctorId = :doctorId")
+    void deleteAllByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ScheduleException e WHERE e.doctorId = :doctorId AND e.date >= :from")
+    void deleteByDoctorIdFrom(@Param("doctorId") Long doctorId, @Param("from") LocalDate from);
+}
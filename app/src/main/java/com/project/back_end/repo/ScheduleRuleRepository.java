@@ -0,0 +1,25 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.ScheduleRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ScheduleRuleRepository extends JpaRepository<ScheduleRule, Long> {
+
+    List<ScheduleRule> findByDoctorId(Long doctorId);
+
+    List<ScheduleRule> findByDoctorIdIn(Collection<Long> doctorIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ScheduleRule r WHERE r.doctorId = :doctorId")
+    void deleteAllByDoctorId(@Param("doctorId") Long doctorId);
+}
@@ -0,0 +1,245 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentChange;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentRef;
+import com.project.back_end.repo.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process bus pushing appointment deltas to open doctor dashboards over Server-Sent Events.
+ * <p>
+ * Appointment writes report what changed and for which doctor; once the transaction commits,
+ * changes of doctors with an open dashboard are loaded once as {@link AppointmentDTO}s and
+ * handed to each of that doctor's subscribers. The load is skipped for doctors nobody is
+ * watching, and open dashboards cost nothing between changes.
+ * <p>
+ * Each subscriber has its own bounded queue, drained by a sender thread of its own while it
+ * has events pending, so a slow or stalled client only delays itself. A subscriber that falls
+ * {@link #QUEUE_CAPACITY} events behind is dropped and its stream completed; the dashboard
+ * reconnects and reloads its listing. Every dashboard still sees changes in commit order.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentChangeFeed {
+
+    static final long EMITTER_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+    static final long RECONNECT_MS = 3_000;
+    static final int QUEUE_CAPACITY = 256;
+
+    private final AppointmentRepository appointmentRepository;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "appointment-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger senderCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "appointment-feed-sender-" + senderCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean closed;
+
+    /**
+     * Opens a feed for a doctor. It ends after {@link #EMITTER_TIMEOUT_MS}; clients reconnect.
+     */
+    public SseEmitter subscribe(Long doctorId) {
+        return subscribe(doctorId, new SseEmitter(EMITTER_TIMEOUT_MS));
+    }
+
+    SseEmitter subscribe(Long doctorId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(doctorId, emitter);
+        // Queued first, so it commits the response and tells EventSource how soon to reconnect
+        subscriber.offer(SseEmitter.event().comment("connected").reconnectTime(RECONNECT_MS));
+        subscribers.computeIfAbsent(doctorId, id -> new CopyOnWriteArraySet<>()).add(subscriber);
+        // Checked after registering, so a stream opened while shutting down is never left behind
+        if (closed) {
+            unsubscribe(subscriber);
+            emitter.complete();
+            return emitter;
+        }
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        subscriber.drain();
+        return emitter;
+    }
+
+    /**
+     * Publishes the current state of the given appointments after the transaction commits.
+     */
+    public void changed(Collection<AppointmentRef> refs) {
+        if (refs.isEmpty()) {
+            return;
+        }
+        List<AppointmentRef> copy = List.copyOf(refs);
+        TransactionHooks.afterCommit(() -> dispatch(() -> {
+            List<Long> watched = copy.stream()
+                    .filter(ref -> subscribers.containsKey(ref.doctorId()))
+                    .map(AppointmentRef::appointmentId)
+                    .toList();
+            if (watched.isEmpty()) {
+                return;
+            }
+            for (AppointmentDTO appointment : appointmentRepository.findDtoByIdIn(watched)) {
+                send(appointment.getDoctorId(), AppointmentChange.upsert(appointment));
+            }
+        }));
+    }
+
+    public void changed(Long doctorId, Long appointmentId) {
+        changed(List.of(new AppointmentRef(appointmentId, null, doctorId)));
+    }
+
+    /**
+     * Tells the doctor's dashboards the appointment left their list, after the transaction commits.
+     */
+    public void removed(Long doctorId, Long appointmentId) {
+        TransactionHooks.afterCommit(() -> dispatch(() ->
+                send(doctorId, AppointmentChange.removed(appointmentId))));
+    }
+
+    // Comment lines keep idle connections open through proxies and flush out dead clients
+    @Scheduled(fixedDelay = 20_000)
+    public void heartbeat() {
+        dispatch(() -> subscribers.values().forEach(doctorSubscribers ->
+                doctorSubscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("keepalive")))));
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Runs on context close, before the web server's graceful shutdown, which would otherwise
+    // wait on every open stream until its phase times out
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        closed = true;
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(doctorSubscribers ->
+                doctorSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    // Writes still committing during graceful shutdown have nobody left to tell
+    private void dispatch(Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Feed already shut down
+        }
+    }
+
+    private void send(Long doctorId, AppointmentChange change) {
+        Set<Subscriber> doctorSubscribers = subscribers.get(doctorId);
+        if (doctorSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : doctorSubscribers) {
+            subscriber.offer(SseEmitter.event().name("appointment").data(change, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.doctorId, (id, doctorSubscribers) -> {
+            doctorSubscribers.remove(subscriber);
+            return doctorSubscribers.isEmpty() ? null : doctorSubscribers;
+        });
+    }
+
+    /**
+     * One open stream and the events not yet written to it. At most one sender drains the
+     * queue at a time; a dropped subscriber is completed by its sender once any write in
+     * progress returns, so nothing else ever waits on the client.
+     */
+    private final class Subscriber {
+        private final Long doctorId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean dropped;
+
+        private Subscriber(Long doctorId, SseEmitter emitter) {
+            this.doctorId = doctorId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (dropped) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Too far behind to catch up: the dashboard reloads once it reconnects
+                dropped = true;
+                unsubscribe(this);
+                queue.clear();
+            }
+            drain();
+        }
+
+        void drain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::sendPending);
+            } catch (RejectedExecutionException e) {
+                // Feed already shut down
+                draining.set(false);
+            }
+        }
+
+        private void sendPending() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!dropped && (event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (Exception e) {
+                        // The container reports the failed write to the emitter's error callback
+                        dropped = true;
+                        unsubscribe(this);
+                        queue.clear();
+                        return;
+                    }
+                }
+                if (dropped) {
+                    queue.clear();
+                    emitter.complete();
+                    return;
+                }
+            } finally {
+                draining.set(false);
+            }
+            // An event offered after the last poll but before the flag cleared
+            if (!queue.isEmpty()) {
+                drain();
+            }
+        }
+    }
+}
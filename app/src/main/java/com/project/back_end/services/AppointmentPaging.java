@@ -0,0 +1,96 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset (seek) pagination over appointments ordered by (appointment_time, id).
+ * <p>
+ * A page is fetched with one extra row to learn whether more follow; the continuation cursor
+ * is the opaque, URL-safe encoding of the last row's (appointment_time, id), and the next
+ * page starts strictly after it. Query cost stays constant however deep the history goes.
+ */
+final class AppointmentPaging {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    // Open bounds within MySQL's DATETIME range
+    static final LocalDateTime MIN_TIME = LocalDateTime.of(1000, 1, 1, 0, 0);
+    static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private AppointmentPaging() {
+    }
+
+    record Cursor(LocalDateTime time, Long id) {
+
+        static final Cursor START = new Cursor(MIN_TIME, 0L);
+
+        /**
+         * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+         */
+        static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return START;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+
+        String encode() {
+            String raw = time + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    static int limit(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+
+    // One row more than the page so we know whether a next page exists
+    static Limit probe(int limit) {
+        return Limit.of(limit + 1);
+    }
+
+    static LocalDateTime from(LocalDate date) {
+        return date == null ? MIN_TIME : date.atStartOfDay();
+    }
+
+    // Exclusive upper bound: the whole of the given day is included
+    static LocalDateTime until(LocalDate date) {
+        return date == null ? MAX_TIME : date.plusDays(1).atStartOfDay();
+    }
+
+    /**
+     * Trims the probe row and returns {"appointments": [...], "nextCursor": cursor or null}.
+     */
+    static Map<String, Object> page(List<AppointmentDTO> rows, int limit) {
+        Map<String, Object> page = new HashMap<>();
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            AppointmentDTO last = rows.get(limit - 1);
+            nextCursor = new Cursor(last.getAppointmentTime(), last.getId()).encode();
+        }
+        page.put("appointments", rows);
+        page.put("nextCursor", nextCursor);
+        return page;
+    }
+}
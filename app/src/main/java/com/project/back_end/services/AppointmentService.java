@@ -1,50 +1,157 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentPageQuery;
+import com.project.back_end.DTO.AppointmentRef;
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.config.MetricsConfig;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
+@Timed(MetricsConfig.SERVICE_CALLS)
 @RequiredArgsConstructor
 public class AppointmentService {
 
+    private static final int LOCK_STRIPES = 64;
+    private static final String SLOT_CONSTRAINT = "uk_appointment_doctor_time";
+
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
-    @Transactional
+    private final DoctorAvailabilityIndex availabilityIndex;
+    private final DoctorScheduleCalendar scheduleCalendar;
+    private final AppointmentChangeFeed changeFeed;
+    private final PatientAppointmentVersions patientVersions;
+    private final PlatformTransactionManager transactionManager;
+    private final Lock[] doctorLocks = newLocks();
+
+    /**
+     * Reserves the (doctor, appointment time) slot and saves the appointment without reading
+     * the slot first. Bookings for the same doctor are serialized by a striped lock held until
+     * commit, and the unique (doctor_id, appointment_time) key rejects any booking that races
+     * in from another instance.
+     *
+     * @return 1 if booked, 0 if the slot is already taken, -1 if the doctor does not exist,
+     * -2 if the time does not start one of the doctor's slots that day
+     */
     public int bookAppointment(Appointment appointment) throws Exception{
-        try {
-            appointmentRepository.save(appointment);
-        } catch (Exception e) {
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime time = appointment.getAppointmentTime();
+
+        // O(1) check against the doctor's materialized calendar for that day
+        Boolean slot = scheduleCalendar.isSlot(doctorId, time);
+        if (slot == null) {
+            return -1;
+        }
+        if (!slot) {
+            return -2;
+        }
+
+        // Fast conflict from the availability index when the day is warm
+        if (Boolean.FALSE.equals(availabilityIndex.isFree(doctorId, time))) {
             return 0;
         }
-        return 1;
+
+        Lock lock = lockFor(doctorId);
+        lock.lock();
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                appointmentRepository.saveAndFlush(appointment);
+                availabilityIndex.markBooked(doctorId, time);
+                changeFeed.changed(doctorId, appointment.getId());
+                patientVersions.changed(appointment.getPatient().getId(), appointment.getId());
+                return 1;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isSlotConflict(e)) {
+                return 0;
+            }
+            if (!doctorRepository.existsById(doctorId)) {
+                return -1;
+            }
+            throw e;
+        } finally {
+            lock.unlock();
+        }
     }
-    @Transactional
+
+    /**
+     * Moves an appointment under the same rules as {@link #bookAppointment}: the new time must
+     * start one of the doctor's slots, the slot is reserved under the doctor's lock and the
+     * unique (doctor_id, appointment_time) key turns a slot taken meanwhile into a conflict.
+     *
+     * @return "result" 1 if moved; 404 if the appointment does not exist, 400 if the doctor
+     * does not exist or the time is not one of their slots, 409 if the slot is taken
+     */
     public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment) throws Exception {
-        try{
-            if(appointmentRepository.findById(appointment.getId()).isEmpty()){
-                return ResponseEntity.ok(Map.of("result","Appointment not found"));
-            }else {
-                appointmentRepository.save(appointment);
-                return ResponseEntity.ok(Map.of("result","1"));
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime time = appointment.getAppointmentTime();
+
+        Boolean slot = scheduleCalendar.isSlot(doctorId, time);
+        if (slot == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("result", "Doctor Does not exist"));
+        }
+        if (!slot) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("result", "Requested time is not one of the doctor's slots"));
+        }
+
+        Lock lock = lockFor(doctorId);
+        lock.lock();
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                Appointment existing = appointmentRepository.findById(appointment.getId()).orElse(null);
+                if (existing == null) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("result", "Appointment not found"));
+                }
+                // Capture the old slot before the merge copies the new state into the managed entity
+                Long oldDoctorId = existing.getDoctor().getId();
+                Long oldPatientId = existing.getPatient().getId();
+                LocalDateTime oldTime = existing.getAppointmentTime();
+                appointmentRepository.saveAndFlush(appointment);
+                availabilityIndex.markFree(oldDoctorId, oldTime);
+                availabilityIndex.markBooked(doctorId, time);
+                if (!oldDoctorId.equals(doctorId)) {
+                    changeFeed.removed(oldDoctorId, appointment.getId());
+                }
+                changeFeed.changed(doctorId, appointment.getId());
+                patientVersions.changed(oldPatientId, appointment.getId());
+                if (!oldPatientId.equals(appointment.getPatient().getId())) {
+                    patientVersions.changed(appointment.getPatient().getId(), appointment.getId());
+                }
+                return ResponseEntity.ok(Map.of("result", "1"));
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isSlotConflict(e)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("result", "Appointment slot already taken"));
             }
-        }catch (Exception e){
-            return ResponseEntity.ok(Map.of("result","Error updating appointment"));
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("result", "Error updating appointment"));
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -58,6 +165,9 @@ public class AppointmentService {
                         .body(Map.of("result", "Appointment not found"));
             } else {
                 appointmentRepository.delete(appointment);
+                availabilityIndex.markFree(appointment.getDoctor().getId(), appointment.getAppointmentTime());
+                changeFeed.removed(appointment.getDoctor().getId(), id);
+                patientVersions.changed(appointment.getPatient().getId(), id);
                 return ResponseEntity.ok(Map.of("result", "Deleted Successfully"));
             }
         } catch (Exception e) {
@@ -66,43 +176,35 @@ public class AppointmentService {
         }
     }
 
+    /**
+     * @throws IllegalArgumentException if the cursor was not returned by an earlier page
+     */
     @Transactional
-    public Map<String, Object> getAppointment(String pname, LocalDate date, String token) throws Exception {
+    public Map<String, Object> getAppointment(String pname, Integer status, AppointmentPageQuery query, String token) throws Exception {
         Map<String, Object> response = new HashMap<>();
+        AppointmentPaging.Cursor cursor = AppointmentPaging.Cursor.decode(query.cursor());
 
         // Token validation is already done in the controller
         try {
-            // 1️⃣ Extract doctor email from token
-            String doctorEmail = tokenService.extractIdentifier(token);
-            if (doctorEmail == null || doctorEmail.isEmpty()) {
-                response.put("error", "Invalid token");
-                return response;
-            }
-
-            // 2️⃣ Find doctor by email to get doctor ID
-            com.project.back_end.models.Doctor doctor = doctorRepository.findByEmail(doctorEmail);
+            // 1️⃣ Resolve the doctor behind the token (cached by TokenService)
+            AuthPrincipal doctor = tokenService.resolvePrincipal(token, "doctor");
             if (doctor == null) {
                 response.put("error", "Doctor not found");
                 return response;
             }
-            Long doctorId = doctor.getId();
-
-            // 3️⃣ Determine start and end of the day
-            LocalDateTime startOfDay = date.atStartOfDay();
-            LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
 
-            List<Appointment> appointments;
+            // 2️⃣ The dashboard sends "null" when no patient name is typed
+            String patientName = pname == null || pname.isBlank() || pname.equals("null") ? null : pname;
 
-            // 4️⃣ Fetch appointments for the doctor and date, filter by patient name if provided
-            if (pname == null || pname.isBlank()) {
-                appointments = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, startOfDay, endOfDay);
-            } else {
-                appointments = appointmentRepository.findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-                        doctorId, pname, startOfDay, endOfDay);
-            }
+            // 3️⃣ Fetch one keyset page for the doctor and date window, projected to DTOs
+            int limit = AppointmentPaging.limit(query.limit());
+            List<AppointmentDTO> rows = appointmentRepository.findDtoPageByDoctorId(
+                    doctor.id(), status, patientName,
+                    AppointmentPaging.from(query.from()), AppointmentPaging.until(query.to()),
+                    cursor.time(), cursor.id(), AppointmentPaging.probe(limit));
 
-            // 5️⃣ Return appointments in a map
-            response.put("appointments", appointments);
+            // 4️⃣ Return appointments and the continuation cursor in a map
+            response.putAll(AppointmentPaging.page(rows, limit));
             return response;
         } catch (Exception e) {
             response.put("error", "Failed to fetch appointments: " + e.getMessage());
@@ -110,9 +212,53 @@ public class AppointmentService {
         }
     }
 
+    /**
+     * Opens the live appointment feed of the doctor behind the token, or returns null if the
+     * token does not resolve to a doctor.
+     */
+    public SseEmitter subscribeChanges(String token) {
+        AuthPrincipal doctor = tokenService.resolvePrincipal(token, "doctor");
+        return doctor == null ? null : changeFeed.subscribe(doctor.id());
+    }
+
     @Transactional
     public void changeStatus(Long appointmentId, int status) {
         appointmentRepository.updateStatus(status, appointmentId);
+        List<AppointmentRef> refs = appointmentRepository.findRefsByIdIn(List.of(appointmentId));
+        changeFeed.changed(refs);
+        patientVersions.changed(refs);
+    }
+
+    /**
+     * Sets the status of many appointments with a single UPDATE ... WHERE id IN (...).
+     */
+    public int changeStatus(Collection<Long> appointmentIds, int status) {
+        if (appointmentIds.isEmpty()) {
+            return 0;
+        }
+        int updated = appointmentRepository.updateStatusByIdIn(status, appointmentIds);
+        List<AppointmentRef> refs = appointmentRepository.findRefsByIdIn(appointmentIds);
+        changeFeed.changed(refs);
+        patientVersions.changed(refs);
+        return updated;
+    }
+
+    // Bookings and reschedules onto the same doctor's slots are serialized by one stripe
+    private Lock lockFor(Long doctorId) {
+        return doctorLocks[Math.floorMod(doctorId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static boolean isSlotConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains(SLOT_CONSTRAINT);
+    }
+
+    private static Lock[] newLocks() {
+        Lock[] locks = new Lock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
     }
 // 4. **Book Appointment Method**:
 //    - Responsible for saving the new appointment to the database.
@@ -0,0 +1,259 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AccountRef;
+import com.project.back_end.DTO.AppointmentRef;
+import com.project.back_end.DTO.BulkImport;
+import com.project.back_end.DTO.BulkImport.ImportedAppointment;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Admin bulk import of doctors, patients and appointments, all or nothing.
+ * <p>
+ * The whole payload is validated and its passwords hashed before a transaction opens. Rows are
+ * then persisted with generator-assigned ids, so Hibernate sends them in JDBC batches instead of
+ * one round trip per row; the persistence context is flushed and cleared every
+ * {@link #FLUSH_EVERY} rows to keep memory flat on large imports.
+ */
+@Service
+@RequiredArgsConstructor
+public class BulkImportService {
+
+    // A multiple of hibernate.jdbc.batch_size
+    static final int FLUSH_EVERY = 1000;
+    private static final int LOOKUP_CHUNK = 1000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final EntityManager entityManager;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final PasswordVerifier passwordVerifier;
+    private final Validator validator;
+    private final DoctorDirectoryCache directoryCache;
+    private final DoctorAvailabilityIndex availabilityIndex;
+    private final PatientAppointmentVersions patientVersions;
+    private final PlatformTransactionManager transactionManager;
+
+    public ResponseEntity<Map<String, Object>> importAll(BulkImport data) {
+        // 1️⃣ Validate everything and resolve appointment references before writing anything
+        List<String> errors = new ArrayList<>();
+        validateAll("doctors", data.doctors(), errors);
+        validateAll("patients", data.patients(), errors);
+
+        Set<String> doctorEmails = new HashSet<>();
+        Set<String> patientEmails = new HashSet<>();
+        for (ImportedAppointment a : data.appointments()) {
+            if (a != null) {
+                doctorEmails.add(a.doctorEmail());
+                patientEmails.add(a.patientEmail());
+            }
+        }
+        Map<String, Long> storedDoctors = lookup(doctorRepository::findRefsByEmailIn,
+                union(doctorEmails, data.doctors(), Doctor::getEmail));
+        Map<String, Long> storedPatients = lookup(patientRepository::findRefsByEmailIn,
+                union(patientEmails, data.patients(), Patient::getEmail));
+        checkNewEmails("doctors", data.doctors(), Doctor::getEmail, storedDoctors, errors);
+        checkNewEmails("patients", data.patients(), Patient::getEmail, storedPatients, errors);
+        Set<String> importedDoctors = emails(data.doctors(), Doctor::getEmail);
+        Set<String> importedPatients = emails(data.patients(), Patient::getEmail);
+        validateAppointments(data.appointments(), importedDoctors, storedDoctors, importedPatients, storedPatients,
+                errors);
+
+        if (!errors.isEmpty()) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("message", "Import rejected, nothing was saved");
+            body.put("errorCount", errors.size());
+            body.put("errors", errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS)));
+            return ResponseEntity.badRequest().body(body);
+        }
+
+        // 2️⃣ Hash passwords outside the transaction, bcrypt hashes supplied by a migration are kept
+        try {
+            hashPasswords(data.doctors(), Doctor::getPassword, Doctor::setPassword);
+            hashPasswords(data.patients(), Patient::getPassword, Patient::setPassword);
+        } catch (PasswordVerifier.RejectedException e) {
+            return ResponseEntity.status(e.status()).body(Map.of("message", e.getMessage()));
+        }
+
+        // 3️⃣ One transaction, batched inserts
+        try {
+            Map<String, Object> counts = new TransactionTemplate(transactionManager)
+                    .execute(status -> persistAll(data, storedDoctors, storedPatients));
+            return ResponseEntity.ok(counts);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Import conflicts with stored data, nothing was saved"));
+        }
+    }
+
+    private Map<String, Object> persistAll(BulkImport data, Map<String, Long> storedDoctors,
+                                           Map<String, Long> storedPatients) {
+        Map<String, Long> doctorIds = new HashMap<>(storedDoctors);
+        Map<String, Long> patientIds = new HashMap<>(storedPatients);
+        List<AppointmentRef> booked = new ArrayList<>(data.appointments().size());
+        int pending = 0;
+        for (Doctor doctor : data.doctors()) {
+            doctor.setId(null);
+            entityManager.persist(doctor);
+            doctorIds.put(doctor.getEmail(), doctor.getId());
+            pending = flushEvery(pending + 1);
+        }
+        for (Patient patient : data.patients()) {
+            patient.setId(null);
+            entityManager.persist(patient);
+            patientIds.put(patient.getEmail(), patient.getId());
+            pending = flushEvery(pending + 1);
+        }
+        for (ImportedAppointment imported : data.appointments()) {
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(entityManager.getReference(Doctor.class, doctorIds.get(imported.doctorEmail())));
+            appointment.setPatient(entityManager.getReference(Patient.class, patientIds.get(imported.patientEmail())));
+            appointment.setAppointmentTime(imported.appointmentTime());
+            appointment.setStatus(imported.status() != null ? imported.status() : 0);
+            entityManager.persist(appointment);
+            booked.add(new AppointmentRef(appointment.getId(), patientIds.get(imported.patientEmail()),
+                    doctorIds.get(imported.doctorEmail())));
+            pending = flushEvery(pending + 1);
+        }
+        entityManager.flush();
+
+        if (!data.doctors().isEmpty()) {
+            directoryCache.invalidate();
+        }
+        patientVersions.changed(booked);
+        if (!data.appointments().isEmpty()) {
+            TransactionHooks.afterCommit(availabilityIndex::clear);
+        }
+
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("doctors", data.doctors().size());
+        counts.put("patients", data.patients().size());
+        counts.put("appointments", data.appointments().size());
+        return counts;
+    }
+
+    private int flushEvery(int pending) {
+        if (pending < FLUSH_EVERY) {
+            return pending;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return 0;
+    }
+
+    private <T> void validateAll(String field, List<T> accounts, List<String> errors) {
+        for (int i = 0; i < accounts.size(); i++) {
+            T account = accounts.get(i);
+            if (account == null) {
+                errors.add(field + "[" + i + "]: entry is required");
+                continue;
+            }
+            for (ConstraintViolation<T> violation : validator.validate(account)) {
+                errors.add(field + "[" + i + "]." + violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+        }
+    }
+
+    private static <T> void checkNewEmails(String field, List<T> accounts, Function<T, String> email,
+                                           Map<String, Long> stored, List<String> errors) {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            String value = accounts.get(i) != null ? email.apply(accounts.get(i)) : null;
+            if (value == null) {
+                continue;
+            }
+            if (stored.containsKey(value)) {
+                errors.add(field + "[" + i + "].email: already registered");
+            } else if (!seen.add(value)) {
+                errors.add(field + "[" + i + "].email: duplicated in the import");
+            }
+        }
+    }
+
+    private static void validateAppointments(List<ImportedAppointment> appointments,
+                                             Set<String> importedDoctors, Map<String, Long> storedDoctors,
+                                             Set<String> importedPatients, Map<String, Long> storedPatients,
+                                             List<String> errors) {
+        Set<String> slots = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < appointments.size(); i++) {
+            ImportedAppointment a = appointments.get(i);
+            String at = "appointments[" + i + "]";
+            if (a == null) {
+                errors.add(at + ": entry is required");
+                continue;
+            }
+            if (!importedDoctors.contains(a.doctorEmail()) && !storedDoctors.containsKey(a.doctorEmail())) {
+                errors.add(at + ".doctorEmail: no such doctor");
+            }
+            if (!importedPatients.contains(a.patientEmail()) && !storedPatients.containsKey(a.patientEmail())) {
+                errors.add(at + ".patientEmail: no such patient");
+            }
+            if (a.appointmentTime() == null || !a.appointmentTime().isAfter(now)) {
+                errors.add(at + ".appointmentTime: Appointment time must be in the future");
+            } else if (!slots.add(a.doctorEmail() + "|" + a.appointmentTime())) {
+                errors.add(at + ": doctor already booked at that time in the import");
+            }
+        }
+    }
+
+    private <T> void hashPasswords(List<T> accounts, Function<T, String> getter,
+                                   BiConsumer<T, String> setter) {
+        List<String> hashes = passwordVerifier.hashAll(accounts.stream().map(getter).toList());
+        for (int i = 0; i < accounts.size(); i++) {
+            setter.accept(accounts.get(i), hashes.get(i));
+        }
+    }
+
+    private static Map<String, Long> lookup(Function<Collection<String>, List<AccountRef>> finder,
+                                            Set<String> emails) {
+        List<String> all = new ArrayList<>(emails);
+        Map<String, Long> ids = new HashMap<>();
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK) {
+            for (AccountRef ref : finder.apply(all.subList(from, Math.min(from + LOOKUP_CHUNK, all.size())))) {
+                ids.put(ref.email(), ref.id());
+            }
+        }
+        return ids;
+    }
+
+    private static <T> Set<String> union(Set<String> emails, List<T> accounts, Function<T, String> email) {
+        Set<String> all = new HashSet<>(emails);
+        all.addAll(emails(accounts, email));
+        all.remove(null);
+        return all;
+    }
+
+    private static <T> Set<String> emails(List<T> accounts, Function<T, String> email) {
+        return accounts.stream()
+                .filter(account -> account != null && email.apply(account) != null)
+                .map(email)
+                .collect(Collectors.toSet());
+    }
+}
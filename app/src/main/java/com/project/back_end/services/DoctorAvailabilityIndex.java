@@ -0,0 +1,175 @@
+package com.project.back_end.services;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory index of booked slots per doctor and day.
+ * <p>
+ * Every warmed day keeps the doctor's {@link SlotBitmap} for that date, taken from the schedule
+ * calendar, and a 96-bit booked bitmap (two longs, updated with CAS). Free slots are the slot
+ * bitmap minus the booked one. Booking, updating and cancelling appointments flip
+ * bits in place after their transaction commits, so availability reads for a warm day never
+ * reach the database.
+ */
+@Component
+public class DoctorAvailabilityIndex {
+
+    // Upper bound on cached days: past days go first, then the longest-cached ones
+    static final int MAX_CACHED_DAYS = 50_000;
+
+    private final Map<DayKey, Day> days = new ConcurrentHashMap<>();
+    // Install order of the cached days; changed together with days, under the monitor
+    private final Deque<DayKey> installed = new ArrayDeque<>();
+    private LocalDate pastEvictedOn;
+
+    // Bumped on every mutation so a concurrent warm-up never installs a stale snapshot
+    private final AtomicLong version = new AtomicLong();
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns the free slots of a warm day, or {@code null} if the day is not indexed yet.
+     */
+    public List<String> getAvailableSlots(Long doctorId, LocalDate date) {
+        Day day = days.get(new DayKey(doctorId, date));
+        if (day == null) {
+            return null;
+        }
+        return day.slots().freeLabels(day.booked().get(0), day.booked().get(1));
+    }
+
+    /**
+     * Tells whether a slot can still be booked: {@code true} if it is free, {@code false} if it
+     * is booked or is not one of the doctor's slots, and {@code null} if the day is not indexed.
+     */
+    public Boolean isFree(Long doctorId, LocalDateTime time) {
+        Day day = days.get(new DayKey(doctorId, time.toLocalDate()));
+        if (day == null) {
+            return null;
+        }
+        int quarter = SlotBitmap.quarterOf(time);
+        if (!day.slots().contains(quarter)) {
+            return false;
+        }
+        return (day.booked().get(quarter >>> 6) & (1L << (quarter & 63))) == 0;
+    }
+
+    /**
+     * Builds the day entry from the doctor's slots of that date and the appointments already
+     * booked, and returns the free slots. The entry is only installed if nothing changed since
+     * {@code observedVersion}, otherwise the computed result is returned without caching.
+     */
+    public List<String> warm(Long doctorId, LocalDate date, SlotBitmap slots,
+                             Collection<LocalDateTime> bookedTimes, long observedVersion) {
+        AtomicLongArray booked = new AtomicLongArray(2);
+        for (LocalDateTime time : bookedTimes) {
+            int quarter = SlotBitmap.quarterOf(time);
+            if (slots.contains(quarter)) {
+                booked.set(quarter >>> 6, booked.get(quarter >>> 6) | (1L << (quarter & 63)));
+            }
+        }
+
+        synchronized (this) {
+            DayKey key = new DayKey(doctorId, date);
+            if (version.get() == observedVersion && !days.containsKey(key)) {
+                makeRoom();
+                days.put(key, new Day(slots, booked));
+                installed.addLast(key);
+            }
+        }
+        return slots.freeLabels(booked.get(0), booked.get(1));
+    }
+
+    public void markBooked(Long doctorId, LocalDateTime time) {
+        TransactionHooks.afterCommit(() -> update(doctorId, time, true));
+    }
+
+    public void markFree(Long doctorId, LocalDateTime time) {
+        TransactionHooks.afterCommit(() -> update(doctorId, time, false));
+    }
+
+    /**
+     * Drops every indexed day of a doctor, e.g. after the doctor is deleted or their
+     * schedule changes.
+     */
+    public void evictDoctor(Long doctorId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                version.incrementAndGet();
+                days.keySet().removeIf(key -> key.doctorId().equals(doctorId));
+                installed.removeIf(key -> key.doctorId().equals(doctorId));
+            }
+        });
+    }
+
+    public void clear() {
+        synchronized (this) {
+            version.incrementAndGet();
+            days.clear();
+            installed.clear();
+        }
+    }
+
+    private void update(Long doctorId, LocalDateTime time, boolean booked) {
+        if (doctorId == null || time == null) {
+            return;
+        }
+        // Bumped and looked up under the monitor warm() installs under: either the warm-up sees
+        // the new version and drops its snapshot, or this sees the installed day and flips its bit
+        Day day;
+        synchronized (this) {
+            version.incrementAndGet();
+            day = days.get(new DayKey(doctorId, time.toLocalDate()));
+        }
+        if (day == null) {
+            return; // day is cold, it will be loaded from the database on the next read
+        }
+        int quarter = SlotBitmap.quarterOf(time);
+        if (!day.slots().contains(quarter)) {
+            return;
+        }
+        AtomicLongArray bits = day.booked();
+        int word = quarter >>> 6;
+        long mask = 1L << (quarter & 63);
+        if (booked) {
+            bits.getAndUpdate(word, value -> value | mask);
+        } else {
+            bits.getAndUpdate(word, value -> value & ~mask);
+        }
+    }
+
+    // Caller holds the monitor
+    private void makeRoom() {
+        if (days.size() < MAX_CACHED_DAYS) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        if (!today.equals(pastEvictedOn)) {
+            pastEvictedOn = today;
+            days.keySet().removeIf(key -> key.date().isBefore(today));
+            installed.removeIf(key -> key.date().isBefore(today));
+        }
+        while (days.size() >= MAX_CACHED_DAYS) {
+            days.remove(installed.removeFirst());
+        }
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+
+    private record Day(SlotBitmap slots, AtomicLongArray booked) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of every doctor (without passwords) with secondary indexes for the filter
+ * endpoint.
+ * <p>
+ * Doctors are kept in id order and each index is a {@link BitSet} over their positions:
+ * lower-cased specialty, name trigrams (narrowing a case-insensitive contains search before it
+ * is verified against the name) and whether the doctor has any AM or PM slot. A filter is the
+ * intersection of the bitsets of the criteria it sets.
+ */
+public final class DoctorDirectory {
+
+    private final List<Doctor> doctors;
+    private final String[] lowerNames;
+    private final Map<String, BitSet> bySpecialty;
+    private final Map<String, BitSet> byNameTrigram;
+    private final BitSet amDoctors;
+    private final BitSet pmDoctors;
+
+    private DoctorDirectory(List<Doctor> doctors) {
+        this.doctors = doctors;
+        this.lowerNames = new String[doctors.size()];
+        Map<String, BitSet> specialties = new HashMap<>();
+        Map<String, BitSet> trigrams = new HashMap<>();
+        this.amDoctors = new BitSet(doctors.size());
+        this.pmDoctors = new BitSet(doctors.size());
+
+        for (int i = 0; i < doctors.size(); i++) {
+            Doctor doctor = doctors.get(i);
+            String name = lower(doctor.getName());
+            lowerNames[i] = name;
+            specialties.computeIfAbsent(lower(doctor.getSpecialty()), key -> new BitSet()).set(i);
+            for (int j = 0; j + 3 <= name.length(); j++) {
+                trigrams.computeIfAbsent(name.substring(j, j + 3), key -> new BitSet()).set(i);
+            }
+            SlotBitmap slots = SlotBitmap.parse(doctor.getAvailableTimes());
+            amDoctors.set(i, slots.hasAm());
+            pmDoctors.set(i, slots.hasPm());
+        }
+        this.bySpecialty = Map.copyOf(specialties);
+        this.byNameTrigram = Map.copyOf(trigrams);
+    }
+
+    public static DoctorDirectory of(List<Doctor> doctors) {
+        List<Doctor> copies = new ArrayList<>(doctors.size());
+        for (Doctor doctor : doctors) {
+            copies.add(copyOf(doctor));
+        }
+        copies.sort(Comparator.comparing(Doctor::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return new DoctorDirectory(List.copyOf(copies));
+    }
+
+    public List<Doctor> all() {
+        return doctors;
+    }
+
+    public int size() {
+        return doctors.size();
+    }
+
+    /**
+     * Doctors matching every criterion that is set: name contains {@code name} (ignoring case),
+     * specialty equals {@code specialty} (ignoring case) and at least one slot in the
+     * {@code amOrPm} half of the day. Null or empty criteria match everyone.
+     */
+    public List<Doctor> filter(String name, String specialty, String amOrPm) {
+        BitSet matches = new BitSet(doctors.size());
+        matches.set(0, doctors.size());
+
+        if (specialty != null && !specialty.isEmpty()) {
+            matches.and(bySpecialty.getOrDefault(lower(specialty), new BitSet()));
+        }
+        if (amOrPm != null && !amOrPm.isEmpty()) {
+            matches.and(amOrPm.equalsIgnoreCase("AM") ? amDoctors : pmDoctors);
+        }
+        if (name != null && !name.isEmpty()) {
+            String needle = lower(name);
+            for (int j = 0; j + 3 <= needle.length() && !matches.isEmpty(); j++) {
+                matches.and(byNameTrigram.getOrDefault(needle.substring(j, j + 3), new BitSet()));
+            }
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                if (!lowerNames[i].contains(needle)) {
+                    matches.clear(i);
+                }
+            }
+        }
+
+        List<Doctor> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(doctors.get(i));
+        }
+        return result;
+    }
+
+    private static Doctor copyOf(Doctor source) {
+        Doctor doctor = new Doctor();
+        doctor.setId(source.getId());
+        doctor.setName(source.getName());
+        doctor.setSpecialty(source.getSpecialty());
+        doctor.setEmail(source.getEmail());
+        doctor.setPhone(source.getPhone());
+        doctor.setSlotMinutes(source.getSlotMinutes());
+        doctor.setAvailableTimes(source.getAvailableTimes() == null ? List.of() : List.copyOf(source.getAvailableTimes()));
+        return doctor;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.back_end.services;
+
+import com.project.back_end.repo.DoctorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through holder of the current {@link DoctorDirectory}.
+ * <p>
+ * The snapshot is loaded with a single fetch-join query on first use and dropped after any
+ * admin write to doctors commits, so the public doctor list and filter endpoints are answered
+ * from memory between changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorDirectoryCache {
+
+    private final DoctorRepository doctorRepository;
+
+    // A lock rather than a monitor: the load blocks on JDBC, which would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong version = new AtomicLong();
+    private volatile DoctorDirectory directory;
+
+    public DoctorDirectory get() {
+        DoctorDirectory current = directory;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (directory == null) {
+                long observed = version.get();
+                DoctorDirectory loaded = DoctorDirectory.of(doctorRepository.findAllWithAvailableTimes());
+                if (version.get() != observed) {
+                    return loaded; // a write committed while loading, serve it once without caching
+                }
+                directory = loaded;
+            }
+            return directory;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the snapshot once the current transaction commits.
+     */
+    public void invalidate() {
+        TransactionHooks.afterCommit(() -> {
+            lock.lock();
+            try {
+                version.incrementAndGet();
+                directory = null;
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.back_end.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The public doctor list serialized once: the JSON body, its gzip encoding and a strong ETag for
+ * each. ETags are derived from the content, so every instance serving the same doctors hands
+ * out the same tags.
+ */
+public record DoctorListing(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+
+    public static DoctorListing of(byte[] json) {
+        String hash = sha256(json);
+        return new DoctorListing(json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gz\"");
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        // Compressed once per change, so the slowest level costs nothing per request
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
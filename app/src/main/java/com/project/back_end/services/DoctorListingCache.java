@@ -0,0 +1,44 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * The {@link DoctorListing} of the current {@link DoctorDirectory} snapshot.
+ * <p>
+ * The listing is rebuilt the first time it is asked for after the directory changed, that is
+ * after a doctor was added, updated, deleted or imported or a slot length changed; in between,
+ * {@code GET /doctor} costs neither a query nor serialization.
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorListingCache {
+
+    private final DoctorDirectoryCache directoryCache;
+    private final ObjectMapper objectMapper;
+
+    private volatile Built built;
+
+    public DoctorListing get() {
+        DoctorDirectory directory = directoryCache.get();
+        Built current = built;
+        if (current != null && current.source() == directory) {
+            return current.listing();
+        }
+        // Concurrent rebuilds of one snapshot produce the same bytes, so the last one simply wins
+        try {
+            DoctorListing listing = DoctorListing.of(objectMapper.writeValueAsBytes(Map.of("doctors", directory.all())));
+            built = new Built(directory, listing);
+            return listing;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Doctor listing could not be serialized", e);
+        }
+    }
+
+    private record Built(DoctorDirectory source, DoctorListing listing) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.ScheduleException;
+import com.project.back_end.models.ScheduleRule;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.ScheduleExceptionRepository;
+import com.project.back_end.repo.ScheduleRuleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Materialized per-day slot calendars of every doctor for a rolling horizon.
+ * <p>
+ * Each doctor's {@link ScheduleTemplate} is expanded into one {@link SlotBitmap} per day from
+ * today on, so the slots of a date are an array lookup. All calendars are built at startup and
+ * rebuilt every night to roll the horizon forward; a doctor whose schedule changes is dropped
+ * after commit and reloaded on its next lookup. Dates outside the horizon are computed from the
+ * template on the fly.
+ */
+@Component
+public class DoctorScheduleCalendar {
+
+    private final DoctorRepository doctorRepository;
+    private final ScheduleRuleRepository ruleRepository;
+    private final ScheduleExceptionRepository exceptionRepository;
+    private final int horizonDays;
+    private final Map<Long, Calendar> calendars = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so a concurrent load never installs a stale calendar
+    private final AtomicLong version = new AtomicLong();
+
+    public DoctorScheduleCalendar(DoctorRepository doctorRepository,
+                                  ScheduleRuleRepository ruleRepository,
+                                  ScheduleExceptionRepository exceptionRepository,
+                                  @Value("${schedule.horizon-days:90}") int horizonDays) {
+        this.doctorRepository = doctorRepository;
+        this.ruleRepository = ruleRepository;
+        this.exceptionRepository = exceptionRepository;
+        this.horizonDays = horizonDays;
+    }
+
+    /**
+     * Slots of a doctor on a date, or {@code null} if the doctor does not exist.
+     */
+    public SlotBitmap slotsOn(Long doctorId, LocalDate date) {
+        Calendar calendar = calendars.get(doctorId);
+        if (calendar == null) {
+            calendar = load(doctorId);
+            if (calendar == null) {
+                return null;
+            }
+        }
+        return calendar.slotsOn(date);
+    }
+
+    /**
+     * Tells whether {@code time} starts one of the doctor's slots, or {@code null} if the doctor
+     * does not exist.
+     */
+    public Boolean isSlot(Long doctorId, LocalDateTime time) {
+        SlotBitmap slots = slotsOn(doctorId, time.toLocalDate());
+        return slots == null ? null : slots.contains(SlotBitmap.quarterOf(time));
+    }
+
+    /**
+     * Calendars of the given doctors, the cold ones loaded together on the calling thread.
+     * Doctors that do not exist are left out; the calendars answer from memory only.
+     */
+    public Map<Long, Calendar> calendarsOf(Collection<Long> doctorIds) {
+        Map<Long, Calendar> found = new HashMap<>();
+        List<Long> cold = new ArrayList<>();
+        for (Long doctorId : doctorIds) {
+            Calendar calendar = calendars.get(doctorId);
+            if (calendar != null) {
+                found.put(doctorId, calendar);
+            } else {
+                cold.add(doctorId);
+            }
+        }
+        if (cold.isEmpty()) {
+            return found;
+        }
+
+        long observed = version.get();
+        LocalDate today = LocalDate.now();
+        Map<Long, List<ScheduleRule>> rules = ruleRepository.findByDoctorIdIn(cold).stream()
+                .collect(Collectors.groupingBy(ScheduleRule::getDoctorId));
+        Map<Long, List<ScheduleException>> exceptions = exceptionRepository
+                .findByDoctorIdInAndDateGreaterThanEqual(cold, today).stream()
+                .collect(Collectors.groupingBy(ScheduleException::getDoctorId));
+        Map<Long, Calendar> loaded = new HashMap<>();
+        for (Doctor doctor : doctorRepository.findWithAvailableTimesByIdIn(cold)) {
+            ScheduleTemplate template = ScheduleTemplate.of(doctor,
+                    rules.getOrDefault(doctor.getId(), List.of()),
+                    exceptions.getOrDefault(doctor.getId(), List.of()));
+            loaded.put(doctor.getId(), materialize(template, today));
+        }
+        synchronized (this) {
+            if (version.get() == observed) {
+                loaded.forEach(calendars::putIfAbsent);
+            }
+        }
+        found.putAll(loaded);
+        return found;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${schedule.materialize.cron:0 5 0 * * *}")
+    public void materializeAll() {
+        long observed = version.get();
+        LocalDate today = LocalDate.now();
+        Map<Long, List<ScheduleRule>> rules = ruleRepository.findAll().stream()
+                .collect(Collectors.groupingBy(ScheduleRule::getDoctorId));
+        Map<Long, List<ScheduleException>> exceptions = exceptionRepository.findByDateGreaterThanEqual(today).stream()
+                .collect(Collectors.groupingBy(ScheduleException::getDoctorId));
+
+        Map<Long, Calendar> built = new HashMap<>();
+        for (Doctor doctor : doctorRepository.findAllWithAvailableTimes()) {
+            ScheduleTemplate template = ScheduleTemplate.of(doctor,
+                    rules.getOrDefault(doctor.getId(), List.of()),
+                    exceptions.getOrDefault(doctor.getId(), List.of()));
+            built.put(doctor.getId(), materialize(template, today));
+        }
+
+        synchronized (this) {
+            if (version.get() != observed) {
+                return; // a schedule changed while loading, changed doctors reload on their own
+            }
+            calendars.keySet().retainAll(built.keySet());
+            calendars.putAll(built);
+        }
+    }
+
+    /**
+     * Drops a doctor's calendar once the current transaction commits, after their schedule,
+     * slot length or available times changed or the doctor was deleted.
+     */
+    public void evictDoctor(Long doctorId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                version.incrementAndGet();
+                calendars.remove(doctorId);
+            }
+        });
+    }
+
+    public void clear() {
+        synchronized (this) {
+            version.incrementAndGet();
+            calendars.clear();
+        }
+    }
+
+    private Calendar load(Long doctorId) {
+        long observed = version.get();
+        Doctor doctor = doctorRepository.findWithAvailableTimesById(doctorId).orElse(null);
+        if (doctor == null) {
+            return null;
+        }
+        LocalDate today = LocalDate.now();
+        ScheduleTemplate template = ScheduleTemplate.of(doctor, ruleRepository.findByDoctorId(doctorId),
+                exceptionRepository.findByDoctorIdAndDateGreaterThanEqual(doctorId, today));
+        Calendar calendar = materialize(template, today);
+        synchronized (this) {
+            if (version.get() == observed) {
+                calendars.putIfAbsent(doctorId, calendar);
+            }
+        }
+        return calendar;
+    }
+
+    private Calendar materialize(ScheduleTemplate template, LocalDate firstDay) {
+        SlotBitmap[] days = new SlotBitmap[horizonDays];
+        for (int i = 0; i < horizonDays; i++) {
+            days[i] = template.slotsOn(firstDay.plusDays(i));
+        }
+        return new Calendar(template, firstDay.toEpochDay(), days);
+    }
+
+    /**
+     * One doctor's materialized days, falling back to the template outside the horizon.
+     */
+    public record Calendar(ScheduleTemplate template, long firstEpochDay, SlotBitmap[] days) {
+
+        public SlotBitmap slotsOn(LocalDate date) {
+            long offset = date.toEpochDay() - firstEpochDay;
+            if (offset >= 0 && offset < days.length) {
+                return days[(int) offset];
+            }
+            return template.slotsOn(date);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.DTO.DoctorSchedule;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.ScheduleException;
+import com.project.back_end.models.ScheduleRule;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.ScheduleExceptionRepository;
+import com.project.back_end.repo.ScheduleRuleRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class DoctorScheduleService {
+
+    private final TokenService tokenService;
+    private final DoctorRepository doctorRepository;
+    private final ScheduleRuleRepository ruleRepository;
+    private final ScheduleExceptionRepository exceptionRepository;
+    private final DoctorScheduleCalendar scheduleCalendar;
+    private final DoctorAvailabilityIndex availabilityIndex;
+    private final DoctorDirectoryCache directoryCache;
+    private final PatientAppointmentVersions patientVersions;
+
+    @Transactional
+    public ResponseEntity<Map<String, Object>> getSchedule(String token) {
+        AuthPrincipal principal = tokenService.resolvePrincipal(token, "doctor");
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid token"));
+        }
+        Doctor doctor = doctorRepository.findById(principal.id()).orElse(null);
+        if (doctor == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Doctor not found"));
+        }
+        DoctorSchedule schedule = new DoctorSchedule(doctor.slotLength(),
+                ruleRepository.findByDoctorId(doctor.getId()),
+                exceptionRepository.findByDoctorIdAndDateGreaterThanEqual(doctor.getId(), LocalDate.now()));
+        return ResponseEntity.ok(Map.of("schedule", schedule));
+    }
+
+    /**
+     * Replaces the doctor's weekly rules, upcoming exceptions and slot length. Appointments
+     * already booked are kept even if they no longer fall on a slot.
+     */
+    @Transactional
+    public ResponseEntity<Map<String, Object>> saveSchedule(String token, DoctorSchedule schedule) {
+        // 1️⃣ Resolve the doctor behind the token
+        AuthPrincipal principal = tokenService.resolvePrincipal(token, "doctor");
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid token"));
+        }
+        Doctor doctor = doctorRepository.findById(principal.id()).orElse(null);
+        if (doctor == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Doctor not found"));
+        }
+
+        // 2️⃣ Reject templates that cannot be cut into quarter-hour aligned slots
+        String error = validate(schedule);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+
+        // 3️⃣ Replace rules and upcoming exceptions; past exceptions stay as history
+        List<ScheduleRule> rules = schedule.rules() == null ? List.of() : schedule.rules();
+        List<ScheduleException> exceptions = schedule.exceptions() == null ? List.of() : schedule.exceptions();
+        doctor.setSlotMinutes(schedule.slotMinutes());
+        ruleRepository.deleteAllByDoctorId(doctor.getId());
+        exceptionRepository.deleteByDoctorIdFrom(doctor.getId(), LocalDate.now());
+        for (ScheduleRule rule : rules) {
+            rule.setId(null);
+            rule.setDoctorId(doctor.getId());
+        }
+        for (ScheduleException exception : exceptions) {
+            exception.setId(null);
+            exception.setDoctorId(doctor.getId());
+        }
+        ruleRepository.saveAll(rules);
+        exceptionRepository.saveAll(exceptions);
+
+        // 4️⃣ Rebuild the calendar and the availability of the doctor after commit
+        scheduleCalendar.evictDoctor(doctor.getId());
+        availabilityIndex.evictDoctor(doctor.getId());
+        directoryCache.invalidate();
+        // A new slot length moves the end time of the doctor's appointments in patient lists
+        patientVersions.invalidateAll();
+        return ResponseEntity.ok(Map.of("message", "Schedule saved"));
+    }
+
+    static String validate(DoctorSchedule schedule) {
+        Integer slotMinutes = schedule.slotMinutes();
+        if (slotMinutes != null && (slotMinutes < 15 || slotMinutes > 240 || slotMinutes % SlotBitmap.SLOT_MINUTES != 0)) {
+            return "Slot length must be a multiple of 15 minutes between 15 and 240";
+        }
+        if (schedule.rules() != null) {
+            for (ScheduleRule rule : schedule.rules()) {
+                if (rule.getDayOfWeek() == null || rule.getStartTime() == null || rule.getEndTime() == null) {
+                    return "Every rule needs a day of week, a start time and an end time";
+                }
+                if (!isWindow(rule.getStartTime(), rule.getEndTime())) {
+                    return "Rule times must be on quarter hours with the start before the end";
+                }
+                if (rule.getValidFrom() != null && rule.getValidUntil() != null
+                        && rule.getValidUntil().isBefore(rule.getValidFrom())) {
+                    return "Rule validity must not end before it starts";
+                }
+            }
+        }
+        if (schedule.exceptions() != null) {
+            LocalDate today = LocalDate.now();
+            for (ScheduleException exception : schedule.exceptions()) {
+                if (exception.getDate() == null || exception.getDate().isBefore(today)) {
+                    return "Every exception needs a date from today on";
+                }
+                if ((exception.getStartTime() == null) != (exception.getEndTime() == null)) {
+                    return "Exceptions need both a start and an end time, or neither for the whole day";
+                }
+                if (exception.isWholeDay() && exception.isAvailable()) {
+                    return "Extra working hours need a start and an end time";
+                }
+                if (!exception.isWholeDay() && !isWindow(exception.getStartTime(), exception.getEndTime())) {
+                    return "Exception times must be on quarter hours with the start before the end";
+                }
+            }
+        }
+        return null;
+    }
+
+    // A quarter-hour aligned window; an end of 00:00 means midnight at the end of the day
+    private static boolean isWindow(LocalTime start, LocalTime end) {
+        return isQuarter(start) && isQuarter(end) && (end.equals(LocalTime.MIDNIGHT) || start.isBefore(end));
+    }
+
+    private static boolean isQuarter(LocalTime time) {
+        return time.getMinute() % SlotBitmap.SLOT_MINUTES == 0 && time.getSecond() == 0 && time.getNano() == 0;
+    }
+}
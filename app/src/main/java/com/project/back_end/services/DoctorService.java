@@ -1,9 +1,12 @@
 package com.project.back_end.services;
 
-import com.project.back_end.models.Appointment;
+import com.project.back_end.config.MetricsConfig;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.ScheduleExceptionRepository;
+import com.project.back_end.repo.ScheduleRuleRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,14 +17,23 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
+@Timed(MetricsConfig.SERVICE_CALLS)
 @RequiredArgsConstructor
 public class DoctorService {
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService ;
+    private final DoctorAvailabilityIndex availabilityIndex;
+    private final DoctorDirectoryCache directoryCache;
+    private final DoctorListingCache listingCache;
+    private final PatientAppointmentVersions patientVersions;
+    private final DoctorScheduleCalendar scheduleCalendar;
+    private final ScheduleRuleRepository scheduleRuleRepository;
+    private final ScheduleExceptionRepository scheduleExceptionRepository;
+    private final PasswordVerifier passwordVerifier;
 
 // 3. **Add @Transactional Annotation for Methods that Modify or Fetch Database Data**:
 //    - Methods like `getDoctorAvailability`, `getDoctors`, `findDoctorByName`, `filterDoctorsBy*` should be annotated with `@Transactional`.
@@ -29,23 +41,19 @@ public class DoctorService {
 //    - Instruction: Add the `@Transactional` annotation above the methods that perform database operations or queries.
     @Transactional
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date){
-        Doctor doctor = doctorRepository.findById(doctorId).orElse(null);
-        if(doctor == null)return List.of() ;
+        // Served from the in-memory index once the day is warm
+        List<String> cached = availabilityIndex.getAvailableSlots(doctorId, date);
+        if(cached != null) return cached;
 
-        List<String> allSlots = doctor.getAvailableTimes();
-        if(allSlots.isEmpty() || allSlots == null) return List.of();
+        // Slots of the day come from the materialized schedule calendar, bookings from one query
+        long version = availabilityIndex.currentVersion();
+        SlotBitmap slots = scheduleCalendar.slotsOn(doctorId, date);
+        if(slots == null || slots.isEmpty()) return List.of();
 
         LocalDateTime start = date.atStartOfDay();
         LocalDateTime end = date.atTime(LocalTime.MAX);
-        List<Appointment> bookedSlots = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId , start, end);
-
-        List<String> bookedTimes = bookedSlots.stream()
-                .map(appointment -> appointment.getAppointmentTime().toLocalTime().toString())
-                .toList();
-        List<String> availableSlots = allSlots.stream()
-                .filter(slot -> !bookedTimes.contains(slot))
-                .toList();
-        return availableSlots;
+        List<LocalDateTime> bookedTimes = appointmentRepository.findBookedTimes(doctorId, start, end);
+        return availabilityIndex.warm(doctorId, date, slots, bookedTimes, version);
     }
     @Transactional
     public int saveDoctor(Doctor doctor){
@@ -55,7 +63,10 @@ public class DoctorService {
             if(existingDoctor != null){
                 return -1;
             }
+            doctor.setPassword(passwordVerifier.hash(doctor.getPassword()));
             doctorRepository.save(doctor);
+            directoryCache.invalidate();
+            scheduleCalendar.evictDoctor(doctor.getId());
             return 1;
         }catch (Exception e){
             return 0;
@@ -66,20 +77,38 @@ public class DoctorService {
     public int updateDoctor(Doctor doctor){
         try{
             Long id = doctor.getId();
-            Doctor existingDoctor = doctorRepository.findById(id).orElse(null) ;
+            // save() merges the submitted slot list into the stored one, so load it with the doctor
+            Doctor existingDoctor = doctorRepository.findWithAvailableTimesById(id).orElse(null) ;
             if(existingDoctor == null){
                 return -1;
             }
+            String oldEmail = existingDoctor.getEmail();
+            // Only a changed password is hashed again; the stored hash can come back unchanged
+            if(doctor.getPassword() == null || doctor.getPassword().equals(existingDoctor.getPassword())){
+                doctor.setPassword(existingDoctor.getPassword());
+            } else {
+                doctor.setPassword(passwordVerifier.hash(doctor.getPassword()));
+            }
             doctorRepository.save(doctor);
+            scheduleCalendar.evictDoctor(id);
+            availabilityIndex.evictDoctor(id);
+            directoryCache.invalidate();
+            // Doctor names and slots are rendered in every patient's appointment list
+            patientVersions.invalidateAll();
+            tokenService.evictIdentifier(oldEmail);
             return 1;
         }catch (Exception e){
             return 0;
         }
     }
 
-    @Transactional
     public List<Doctor> getDoctors(){
-        return doctorRepository.findAll();
+        return directoryCache.get().all();
+    }
+
+    // The same list already serialized and gzipped, for the public GET /doctor
+    public DoctorListing getDoctorListing(){
+        return listingCache.get();
     }
 
     @Transactional
@@ -90,87 +119,66 @@ public class DoctorService {
                 return -1;
             }
             appointmentRepository.deleteAllByDoctorId(doctorId);
+            scheduleRuleRepository.deleteAllByDoctorId(doctorId);
+            scheduleExceptionRepository.deleteAllByDoctorId(doctorId);
             doctorRepository.deleteById(doctorId);
+            scheduleCalendar.evictDoctor(doctorId);
+            availabilityIndex.evictDoctor(doctorId);
+            directoryCache.invalidate();
+            // Doctor names and slots are rendered in every patient's appointment list
+            patientVersions.invalidateAll();
+            tokenService.evictIdentifier(existingDoctor.getEmail());
             return 1;
         }catch (Exception e){
             return 0;
         }
     }
 
-    @Transactional
-    public ResponseEntity<Map<String,String >> validateDoctor(String email, String password){
-        try{
-            Doctor existingDoctor = doctorRepository.findByEmail(email) ;
-            if(existingDoctor == null){
-                return ResponseEntity.status(404).body(Map.of("error","Doctor not found"));
-            }
-            if(!existingDoctor.getPassword().equals(password)){
-                return ResponseEntity.status(401).body(Map.of("error","Invalid password"));
-            }
-            String token = tokenService.generateToken(existingDoctor.getEmail());
-            return ResponseEntity.ok(Map.of("token",token));
-        }catch (Exception e){
-            return ResponseEntity.status(500).body(Map.of("error","Internal server error"));
+    public CompletableFuture<ResponseEntity<Map<String,String >>> validateDoctor(String email, String password){
+        Doctor existingDoctor = doctorRepository.findByEmail(email) ;
+        if(existingDoctor == null){
+            return CompletableFuture.completedFuture(ResponseEntity.status(404).body(Map.of("error","Doctor not found")));
         }
+        return passwordVerifier.login("doctor:" + existingDoctor.getEmail(), password, existingDoctor.getPassword(),
+                hash -> doctorRepository.updatePassword(existingDoctor.getId(), existingDoctor.getPassword(), hash),
+                () -> tokenService.generateToken(existingDoctor.getEmail()));
     }
 
-    @Transactional
+    // Name, specialty and AM/PM filters are answered from the cached doctor directory
+
     public Map<String , Object> findDoctorByName(String name ){
-        List<Doctor> doctors = doctorRepository.findByNameLike(name) ;
+        List<Doctor> doctors = directoryCache.get().filter(name, null, null) ;
         return Map.of("Doctors",doctors);
     }
 
     public Map<String, Object> filterDoctorsByNameSpecilityandTime(String name, String specialty, String amOrPm) {
-        List<Doctor> doctors = doctorRepository
-                .findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
-        List<Doctor> filtered = filterDoctorByTime(doctors, amOrPm);
+        List<Doctor> filtered = directoryCache.get().filter(name, specialty, amOrPm);
         return Map.of("doctors", filtered);
     }
 
     public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findByNameLike("%" + name + "%");
-        List<Doctor> filtered = filterDoctorByTime(doctors, amOrPm);
+        List<Doctor> filtered = directoryCache.get().filter(name, null, amOrPm);
         return Map.of("doctors", filtered);
     }
 
     public Map<String, Object> filterDoctorByNameAndSpecility(String name, String specialty) {
-        List<Doctor> doctors = doctorRepository
-                .findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
+        List<Doctor> doctors = directoryCache.get().filter(name, specialty, null);
         return Map.of("doctors", doctors);
     }
 
     public Map<String, Object> filterDoctorByTimeAndSpecility(String specialty, String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
-        List<Doctor> filtered = filterDoctorByTime(doctors, amOrPm);
+        List<Doctor> filtered = directoryCache.get().filter(null, specialty, amOrPm);
         return Map.of("doctors", filtered);
     }
 
     public Map<String, Object> filterDoctorBySpecility(String specialty) {
-        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
+        List<Doctor> doctors = directoryCache.get().filter(null, specialty, null);
         return Map.of("doctors", doctors);
     }
 
     public Map<String, Object> filterDoctorsByTime(String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findAll();
-        List<Doctor> filtered = filterDoctorByTime(doctors, amOrPm);
+        List<Doctor> filtered = directoryCache.get().filter(null, null, amOrPm);
         return Map.of("doctors", filtered);
     }
 
-    // ------------------ Private helper method ------------------
-
-    private List<Doctor> filterDoctorByTime(List<Doctor> doctors, String amOrPm) {
-        if (amOrPm == null || amOrPm.isEmpty()) return doctors;
-
-        boolean isAM = amOrPm.equalsIgnoreCase("AM");
-
-        return doctors.stream()
-                .filter(doc -> doc.getAvailableTimes() != null && doc.getAvailableTimes().stream()
-                        .anyMatch(slot -> {
-                            int hour = Integer.parseInt(slot.split(":")[0]);
-                            return isAM ? hour < 12 : hour >= 12;
-                        }))
-                .collect(Collectors.toList());
-    }
-
-   
 }
@@ -0,0 +1,202 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.PrescriptionView;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams appointments (with doctor and patient) and their MongoDB prescriptions for reporting.
+ * <p>
+ * Appointments are read in fixed-size keyset chunks in (appointment_time, id) order, each with
+ * its own short query, so a slow client never holds a pooled connection or a transaction. A
+ * chunk costs one Mongo query, read through a cursor, for its prescriptions and is written and
+ * flushed before the next is read. Memory use is bounded by the chunk size, not by the length of
+ * the export.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final String CSV_HEADER = "appointmentId,appointmentTime,status,doctorId,doctorName," +
+            "patientId,patientName,patientEmail,patientPhone,medication,dosage,doctorNotes";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException for anything but "ndjson" or "csv"
+         */
+        public static Format parse(String format) {
+            return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every appointment from {@code from} through {@code to} (inclusive, either may be
+     * null for an open end) to {@code out} in the given format.
+     */
+    public void exportAppointments(LocalDate from, LocalDate to, Format format, OutputStream out) {
+        LocalDateTime start = AppointmentPaging.from(from);
+        LocalDateTime until = AppointmentPaging.until(to);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            AppointmentPaging.Cursor after = AppointmentPaging.Cursor.START;
+            List<AppointmentDTO> chunk;
+            do {
+                chunk = appointmentRepository.findDtoChunkBetween(start, until, after.time(), after.id(),
+                        Limit.of(CHUNK_SIZE));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                writeChunk(chunk, format, writer);
+                AppointmentDTO last = chunk.get(chunk.size() - 1);
+                after = new AppointmentPaging.Cursor(last.getAppointmentTime(), last.getId());
+            } while (chunk.size() == CHUNK_SIZE);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeChunk(List<AppointmentDTO> chunk, Format format, Writer writer) throws IOException {
+        // 1️⃣ One Mongo query per chunk for its prescriptions, read through a cursor
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (AppointmentDTO appointment : chunk) {
+            ids.add(appointment.getId());
+        }
+        Query query = Query.query(Criteria.where("appointmentId").in(ids));
+        query.fields().exclude("_id").include("patientName", "appointmentId", "medication", "dosage", "doctorNotes");
+        Map<Long, List<PrescriptionView>> prescriptions = new HashMap<>();
+        try (Stream<PrescriptionView> views = mongoTemplate.stream(query, PrescriptionView.class,
+                mongoTemplate.getCollectionName(Prescription.class))) {
+            views.forEach(view -> prescriptions.computeIfAbsent(view.appointmentId(), id -> new ArrayList<>()).add(view));
+        }
+
+        // 2️⃣ Write the chunk and hand it to the client before reading on
+        for (AppointmentDTO appointment : chunk) {
+            List<PrescriptionView> forAppointment = prescriptions.getOrDefault(appointment.getId(), List.of());
+            if (format == Format.CSV) {
+                writeCsv(appointment, forAppointment, writer);
+            } else {
+                writeNdjson(appointment, forAppointment, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(AppointmentDTO appointment, List<PrescriptionView> prescriptions, Writer writer)
+            throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", appointment.getId());
+        row.put("appointmentTime", appointment.getAppointmentTime());
+        row.put("status", appointment.getStatus());
+        row.put("doctorId", appointment.getDoctorId());
+        row.put("doctorName", appointment.getDoctorName());
+        row.put("patientId", appointment.getPatientId());
+        row.put("patientName", appointment.getPatientName());
+        row.put("patientEmail", appointment.getPatientEmail());
+        row.put("patientPhone", appointment.getPatientPhone());
+        List<Map<String, Object>> items = new ArrayList<>(prescriptions.size());
+        for (PrescriptionView prescription : prescriptions) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("medication", prescription.medication());
+            item.put("dosage", prescription.dosage());
+            item.put("doctorNotes", prescription.doctorNotes());
+            items.add(item);
+        }
+        row.put("prescriptions", items);
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+
+    // One line per prescription; appointments without one get a single line with empty columns
+    private static void writeCsv(AppointmentDTO appointment, List<PrescriptionView> prescriptions, Writer writer)
+            throws IOException {
+        String prefix = String.join(",",
+                String.valueOf(appointment.getId()),
+                String.valueOf(appointment.getAppointmentTime()),
+                String.valueOf(appointment.getStatus()),
+                String.valueOf(appointment.getDoctorId()),
+                csv(appointment.getDoctorName()),
+                String.valueOf(appointment.getPatientId()),
+                csv(appointment.getPatientName()),
+                csv(appointment.getPatientEmail()),
+                csv(appointment.getPatientPhone()));
+        if (prescriptions.isEmpty()) {
+            writer.write(prefix);
+            writer.write(",,,\n");
+            return;
+        }
+        for (PrescriptionView prescription : prescriptions) {
+            writer.write(prefix);
+            writer.write(',');
+            writer.write(String.join(",", csv(prescription.medication()), csv(prescription.dosage()),
+                    csv(prescription.doctorNotes())));
+            writer.write('\n');
+        }
+    }
+
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
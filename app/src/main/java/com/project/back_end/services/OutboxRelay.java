@@ -0,0 +1,156 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies {@link OutboxEvent}s to MongoDB in the background.
+ * <p>
+ * Each run claims the due events in id order, writes their prescriptions with one unordered bulk
+ * upsert keyed by the pre-assigned document id, and marks them processed. The claim is a row lock
+ * held until the outcome is recorded, and other instances skip locked rows, so concurrent relays
+ * split the backlog instead of sharing it. Replaying an event rewrites the same document, so a
+ * crash between the Mongo write and the bookkeeping never duplicates anything. Failed events are
+ * retried with exponential backoff and parked after {@link #MAX_ATTEMPTS} attempts.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    static final int BATCH_SIZE = 200;
+    static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    static final Duration RETENTION = Duration.ofDays(7);
+    static final int MAX_ATTEMPTS = 10;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        // Keep draining while full batches come back, then wait for the next tick
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == BATCH_SIZE);
+    }
+
+    @Scheduled(cron = "${outbox.relay.purge-cron:0 0 3 * * *}")
+    public void purgeProcessed() {
+        int purged = outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(RETENTION));
+        log.debug("Purged {} processed outbox events", purged);
+    }
+
+    /**
+     * Relays one batch of due events and returns how many were picked up.
+     */
+    public int relayBatch() {
+        Integer relayed = new TransactionTemplate(transactionManager).execute(status -> relayClaimed());
+        return relayed != null ? relayed : 0;
+    }
+
+    private int relayClaimed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> due = outboxEventRepository.claimDue(now, Limit.of(BATCH_SIZE));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        // 1️⃣ Decode payloads; an unreadable event fails on its own without blocking the batch
+        Map<Integer, String> failures = new HashMap<>();
+        List<Integer> positions = new ArrayList<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class);
+        for (int i = 0; i < due.size(); i++) {
+            OutboxEvent event = due.get(i);
+            try {
+                if (!OutboxEvent.PRESCRIPTION_SAVED.equals(event.getType())) {
+                    throw new IllegalArgumentException("Unknown event type " + event.getType());
+                }
+                Prescription prescription = objectMapper.readValue(event.getPayload(), Prescription.class);
+                bulk.replaceOne(Query.query(Criteria.where("_id").is(event.getAggregateId())), prescription,
+                        FindAndReplaceOptions.options().upsert());
+                positions.add(i);
+            } catch (Exception e) {
+                failures.put(i, e.getMessage());
+            }
+        }
+
+        // 2️⃣ One unordered bulk upsert for the whole batch
+        if (!positions.isEmpty()) {
+            try {
+                bulk.execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    failures.put(positions.get(error.getIndex()), error.getMessage());
+                }
+            } catch (Exception e) {
+                for (Integer position : positions) {
+                    failures.put(position, e.getMessage());
+                }
+            }
+        }
+
+        // 3️⃣ Record the outcome: processed, scheduled for a retry, or parked
+        int parked = 0;
+        for (int i = 0; i < due.size(); i++) {
+            OutboxEvent event = due.get(i);
+            String failure = failures.get(i);
+            if (failure == null) {
+                event.setProcessedAt(now);
+                event.setLastError(null);
+                continue;
+            }
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(failure.length() > 500 ? failure.substring(0, 500) : failure);
+            if (event.getAttempts() >= MAX_ATTEMPTS) {
+                event.setParkedAt(now);
+                parked++;
+                log.error("Outbox relay: parked event {} ({} {}) after {} attempts: {}", event.getId(),
+                        event.getType(), event.getAggregateId(), event.getAttempts(), event.getLastError());
+            } else {
+                event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+            }
+        }
+        outboxEventRepository.saveAll(due);
+        if (failures.size() > parked) {
+            log.warn("Outbox relay: {} of {} events failed and will be retried", failures.size() - parked, due.size());
+        }
+        return due.size();
+    }
+
+    static Duration backoff(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = INITIAL_BACKOFF.multipliedBy(1L << exponent);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+}
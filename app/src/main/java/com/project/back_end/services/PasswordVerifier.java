@@ -0,0 +1,234 @@
+package com.project.back_end.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Hashes passwords with bcrypt and checks logins on a dedicated, bounded pool.
+ * <p>
+ * A bcrypt check costs tens of milliseconds of CPU by design, so it never runs on request
+ * threads: checks are queued to a fixed pool sized to the CPU count, and once the queue is full
+ * further logins are turned away at once instead of piling up behind each other. Each account
+ * may only start a limited number of checks per minute, so one hammered account cannot take
+ * the pool. Stored values that are not bcrypt hashes are legacy plain text; they still verify,
+ * and the result carries a fresh hash for the caller to store in their place. What a login does
+ * after the check (storing that hash, issuing the token) runs on the application task executor,
+ * so the pool only ever does bcrypt work.
+ */
+@Component
+public class PasswordVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordVerifier.class);
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+    private static final long WINDOW_MILLIS = 60_000;
+
+    // Past this many tracked accounts, expired rate-limit windows are swept
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    /**
+     * Outcome of a login check. {@code upgradedHash} is set when the password matched but the
+     * stored value is plain text or a weaker hash and should be replaced.
+     */
+    public record Verification(boolean matches, String upgradedHash) {
+    }
+
+    /**
+     * Thrown when a check is not started, either because the pool is saturated or because the
+     * account used up its attempts; {@link #status()} is the HTTP status to answer with.
+     */
+    public static class RejectedException extends RuntimeException {
+        private final HttpStatus status;
+
+        RejectedException(HttpStatus status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        public HttpStatus status() {
+            return status;
+        }
+    }
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Executor followUpExecutor;
+    private final int maxAttemptsPerMinute;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public PasswordVerifier(@Value("${auth.password.bcrypt-strength:10}") int strength,
+                            @Value("${auth.verifier.threads:0}") int threads,
+                            @Value("${auth.verifier.queue-capacity:256}") int queueCapacity,
+                            @Value("${auth.login.max-attempts-per-minute:10}") int maxAttemptsPerMinute,
+                            @Qualifier("applicationTaskExecutor") Executor followUpExecutor) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.maxAttemptsPerMinute = maxAttemptsPerMinute;
+        this.followUpExecutor = followUpExecutor;
+    }
+
+    /**
+     * Checks {@code raw} against the stored value of {@code account} on the verifier pool.
+     *
+     * @throws RejectedException if the account is rate limited or the pool queue is full
+     */
+    public CompletableFuture<Verification> verify(String account, String raw, String stored) {
+        acquireAttempt(account);
+        try {
+            return CompletableFuture.supplyAsync(() -> check(raw, stored), executor);
+        } catch (RejectedExecutionException e) {
+            throw new RejectedException(HttpStatus.SERVICE_UNAVAILABLE, "Too many logins in progress, retry shortly");
+        }
+    }
+
+    /**
+     * Runs a login against an account that was found: verifies the password off the request
+     * thread, stores the upgraded hash through {@code rehash} when there is one, and answers
+     * with the token from {@code token} or the matching error. A failed rehash is logged and
+     * does not fail the login; the old value still verifies and is upgraded next time.
+     */
+    public CompletableFuture<ResponseEntity<Map<String, String>>> login(String account, String raw, String stored,
+                                                                        Consumer<String> rehash,
+                                                                        Supplier<String> token) {
+        try {
+            return verify(account, raw, stored)
+                    .thenApplyAsync(verification -> {
+                        if (!verification.matches()) {
+                            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                    .body(Map.of("error", "Invalid password"));
+                        }
+                        if (verification.upgradedHash() != null) {
+                            try {
+                                rehash.accept(verification.upgradedHash());
+                            } catch (RuntimeException e) {
+                                log.warn("Could not store the upgraded password hash of {}", account, e);
+                            }
+                        }
+                        return ResponseEntity.ok(Map.of("token", token.get()));
+                    }, followUpExecutor)
+                    .exceptionally(e -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Login failed")));
+        } catch (RejectedException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(e.status())
+                    .header(HttpHeaders.RETRY_AFTER, e.status() == HttpStatus.TOO_MANY_REQUESTS ? "60" : "1")
+                    .body(Map.of("error", e.getMessage())));
+        }
+    }
+
+    /**
+     * Hashes a new password on the verifier pool, waiting for the result. Meant for sign-up and
+     * password changes, which are rare next to logins.
+     *
+     * @throws RejectedException if the pool queue is full
+     */
+    public String hash(String raw) {
+        try {
+            return CompletableFuture.supplyAsync(() -> encoder.encode(raw), executor).join();
+        } catch (RejectedExecutionException e) {
+            throw new RejectedException(HttpStatus.SERVICE_UNAVAILABLE, "Too many requests in progress, retry shortly");
+        }
+    }
+
+    /**
+     * Hashes many new passwords on the verifier pool for bulk imports. Values that already are
+     * bcrypt hashes are kept. Work is submitted one pool-sized window at a time, so an import
+     * never fills the queue that logins rely on.
+     *
+     * @throws RejectedException if the pool queue is full
+     */
+    public List<String> hashAll(List<String> raws) {
+        int window = executor.getMaximumPoolSize();
+        List<String> hashes = new ArrayList<>(raws.size());
+        for (int from = 0; from < raws.size(); from += window) {
+            List<CompletableFuture<String>> pending = new ArrayList<>(window);
+            try {
+                for (String raw : raws.subList(from, Math.min(from + window, raws.size()))) {
+                    pending.add(isHashed(raw) ? CompletableFuture.completedFuture(raw)
+                            : CompletableFuture.supplyAsync(() -> encoder.encode(raw), executor));
+                }
+            } catch (RejectedExecutionException e) {
+                throw new RejectedException(HttpStatus.SERVICE_UNAVAILABLE, "Too many requests in progress, retry shortly");
+            }
+            pending.forEach(future -> hashes.add(future.join()));
+        }
+        return hashes;
+    }
+
+    public boolean isHashed(String stored) {
+        return stored != null && BCRYPT.matcher(stored).find();
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Verification check(String raw, String stored) {
+        if (raw == null || stored == null) {
+            return new Verification(false, null);
+        }
+        if (isHashed(stored)) {
+            if (!encoder.matches(raw, stored)) {
+                return new Verification(false, null);
+            }
+            return new Verification(true, encoder.upgradeEncoding(stored) ? encoder.encode(raw) : null);
+        }
+        // Legacy plain-text row: constant-time compare, then migrate it to a hash
+        boolean matches = MessageDigest.isEqual(raw.getBytes(StandardCharsets.UTF_8),
+                stored.getBytes(StandardCharsets.UTF_8));
+        return new Verification(matches, matches ? encoder.encode(raw) : null);
+    }
+
+    private void acquireAttempt(String account) {
+        long now = System.currentTimeMillis();
+        if (windows.size() > SWEEP_THRESHOLD) {
+            windows.values().removeIf(window -> window.start + WINDOW_MILLIS <= now);
+        }
+        Window window = windows.compute(account, (key, current) ->
+                current == null || current.start + WINDOW_MILLIS <= now
+                        ? new Window(now, 1)
+                        : new Window(current.start, current.attempts + 1));
+        if (window.attempts > maxAttemptsPerMinute) {
+            throw new RejectedException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts, try again later");
+        }
+    }
+
+    private record Window(long start, int attempts) {
+    }
+}
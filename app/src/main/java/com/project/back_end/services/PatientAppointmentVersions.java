@@ -0,0 +1,160 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentRef;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-patient version of the appointment list, for conditional requests and delta sync of the
+ * patient dashboards.
+ * <p>
+ * Versions come from one sequence seeded with the start time, so a restarted instance only
+ * hands out versions newer than any it handed out before, and older ones fall back to a full
+ * reload. Each patient keeps the last {@link #MAX_TRACKED} changed appointment ids with the
+ * version of their change; that answers "what changed since version v". Changes that touch
+ * many patients at once (doctor edits, imports) raise a floor instead, below which every
+ * patient reloads in full. Bumps run after the write commits, so a version never announces
+ * data a reader cannot see yet.
+ */
+@Component
+public class PatientAppointmentVersions {
+
+    static final int MAX_TRACKED = 256;
+
+    private final AtomicLong sequence;
+    private final Map<Long, History> histories = new ConcurrentHashMap<>();
+    private volatile Floor floor;
+
+    public PatientAppointmentVersions() {
+        long startedAt = System.currentTimeMillis();
+        this.sequence = new AtomicLong(startedAt * 1000);
+        this.floor = new Floor(sequence.get(), startedAt);
+    }
+
+    /**
+     * Current version of the patient's appointments and when they last changed.
+     */
+    public Version current(Long patientId) {
+        Floor base = floor;
+        History history = histories.get(patientId);
+        if (history != null) {
+            synchronized (history) {
+                if (history.version > base.version()) {
+                    return new Version(patientId, history.version, history.modifiedAt);
+                }
+            }
+        }
+        return new Version(patientId, base.version(), base.modifiedAt());
+    }
+
+    /**
+     * Ids of the patient's appointments changed after {@code since}, or null when that cannot
+     * be told (a version from before a restart or a floor raise, or older than what is tracked).
+     */
+    public Set<Long> changedSince(Long patientId, long since) {
+        Floor base = floor;
+        if (since < base.version()) {
+            return null;
+        }
+        History history = histories.get(patientId);
+        if (history == null) {
+            return since == base.version() ? Set.of() : null;
+        }
+        synchronized (history) {
+            if (since < history.trackedFrom || since > Math.max(history.version, base.version())) {
+                return null;
+            }
+            Set<Long> changed = new HashSet<>();
+            history.changes.forEach((appointmentId, version) -> {
+                if (version > since) {
+                    changed.add(appointmentId);
+                }
+            });
+            return changed;
+        }
+    }
+
+    /**
+     * Records changed appointments against their patients once the transaction commits.
+     */
+    public void changed(Collection<AppointmentRef> refs) {
+        if (refs.isEmpty()) {
+            return;
+        }
+        List<AppointmentRef> copy = List.copyOf(refs);
+        TransactionHooks.afterCommit(() -> {
+            for (AppointmentRef ref : copy) {
+                record(ref.patientId(), ref.appointmentId());
+            }
+        });
+    }
+
+    public void changed(Long patientId, Long appointmentId) {
+        changed(List.of(new AppointmentRef(appointmentId, patientId, null)));
+    }
+
+    /**
+     * Makes every patient reload in full once the transaction commits, after a change that
+     * reaches appointments of many patients.
+     */
+    public void invalidateAll() {
+        TransactionHooks.afterCommit(() -> {
+            floor = new Floor(sequence.incrementAndGet(), System.currentTimeMillis());
+            histories.clear();
+        });
+    }
+
+    private void record(Long patientId, Long appointmentId) {
+        History history = histories.computeIfAbsent(patientId, id -> new History(floor.version()));
+        synchronized (history) {
+            long version = sequence.incrementAndGet();
+            history.version = version;
+            history.modifiedAt = System.currentTimeMillis();
+            history.changes.remove(appointmentId);
+            history.changes.put(appointmentId, version);
+            if (history.changes.size() > MAX_TRACKED) {
+                Iterator<Long> oldest = history.changes.values().iterator();
+                history.trackedFrom = oldest.next();
+                oldest.remove();
+            }
+        }
+    }
+
+    /**
+     * @param value        version handed to clients in the ETag and as {@code since}
+     * @param lastModified epoch millis of the change that produced it
+     */
+    public record Version(Long patientId, long value, long lastModified) {
+
+        // Weak: equal versions mean the same appointments, not byte-identical bodies
+        public String etag() {
+            return "W/\"" + patientId + "-" + value + "\"";
+        }
+    }
+
+    private record Floor(long version, long modifiedAt) {
+    }
+
+    private static final class History {
+
+        private final LinkedHashMap<Long, Long> changes = new LinkedHashMap<>();
+        private long version;
+        private long modifiedAt;
+        // Versions before this are no longer fully tracked
+        private long trackedFrom;
+
+        private History(long trackedFrom) {
+            this.trackedFrom = trackedFrom;
+            this.version = trackedFrom;
+        }
+    }
+}
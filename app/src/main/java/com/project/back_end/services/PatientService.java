@@ -1,10 +1,13 @@
 package com.project.back_end.services;
 
 import com.project.back_end.DTO.AppointmentDTO;
-import com.project.back_end.models.Appointment;
+import com.project.back_end.DTO.AppointmentPageQuery;
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.config.MetricsConfig;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -12,16 +15,22 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
+@Timed(MetricsConfig.SERVICE_CALLS)
 @RequiredArgsConstructor
 public class PatientService {
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final PasswordVerifier passwordVerifier;
+    private final PatientAppointmentVersions patientVersions;
 
     @Transactional
     public int createPatient(Patient patient){
@@ -30,6 +39,7 @@ public class PatientService {
             if(isExisting != null){
                 return 0 ;
             }
+            patient.setPassword(passwordVerifier.hash(patient.getPassword()));
             patientRepository.save(patient);
             return 1 ;
         }catch (Exception e){
@@ -38,34 +48,23 @@ public class PatientService {
     }
 
     @Transactional
-    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token) {
+    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token, AppointmentPageQuery query) {
         try {
-            // 1. Decode token to get email
-            String emailFromToken = tokenService.extractIdentifier(token);
-
-            // 2. Fetch patient by email
-            Patient patient = patientRepository.findByEmail(emailFromToken);
+            // 1. Resolve the patient behind the token (cached by TokenService)
+            AuthPrincipal patient = tokenService.resolvePrincipal(token, "patient");
             if (patient == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Invalid token"));
             }
 
-            // 3. Validate that token patient matches requested ID
-            if (!patient.getId().equals(id)) {
+            // 2. Validate that token patient matches requested ID
+            if (!patient.id().equals(id)) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Unauthorized access"));
             }
 
-            // 4. Fetch appointments for the patient
-            List<Appointment> appointments = appointmentRepository.findByPatientId(id);
-
-            // 5. Map to DTOs
-            List<AppointmentDTO> dtoList = appointments.stream()
-                    .map(AppointmentDTO::new) // Assuming you have a constructor in AppointmentDTO that accepts Appointment
-                    .collect(Collectors.toList());
-
-            // 6. Return response
-            return ResponseEntity.ok(Map.of("appointments", dtoList));
+            // 3. Fetch one page of appointments, projected to DTOs by the query
+            return listAppointments(id, null, null, query);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -75,23 +74,15 @@ public class PatientService {
 
 
     @Transactional
-    public ResponseEntity<Map<String , Object>> filterByCondition(String condition, Long id){
+    public ResponseEntity<Map<String , Object>> filterByCondition(String condition, Long id, AppointmentPageQuery query){
         try{
-            LocalDateTime now = LocalDateTime.now();
-            List<Appointment> appointments = appointmentRepository.findByPatientId(id) ;
-
-            List<Appointment> filteredAppointments  = appointments.stream().filter(a -> {
-                if(a.getStatus() == 1 && condition.equalsIgnoreCase("past")){
-                    return true ;
-                }else if (a.getStatus() == 0 && condition.equalsIgnoreCase("future")){
-                    return true ;
-                }
-                return false ;
-            }).collect(Collectors.toList()) ;
-            List<AppointmentDTO> dtoList = filteredAppointments.stream()
-                    .map(AppointmentDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(Map.of("appointments", dtoList));
+            // past = completed (status 1), future = scheduled (status 0)
+            if (condition.equalsIgnoreCase("past")) {
+                return listAppointments(id, 1, null, query);
+            } else if (condition.equalsIgnoreCase("future")) {
+                return listAppointments(id, 0, null, query);
+            }
+            return ResponseEntity.ok(AppointmentPaging.page(List.of(), 0));
         }catch (Exception e ){
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to filter appointments by condition"));
@@ -99,13 +90,9 @@ public class PatientService {
     }
 
     @Transactional
-    public ResponseEntity<Map<String , Object>> filterByDoctor(String doctorName,Long id){
+    public ResponseEntity<Map<String , Object>> filterByDoctor(String doctorName, Long id, AppointmentPageQuery query){
         try{
-            List<Appointment> appointments = appointmentRepository.filterByDoctorNameAndPatientId(doctorName , id ) ;
-            List<AppointmentDTO> dtoList = appointments.stream()
-                    .map(AppointmentDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(Map.of("appointments", dtoList));
+            return listAppointments(id, null, doctorName, query);
         }catch (Exception e ){
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to filter appointments by doctor"));
@@ -113,19 +100,24 @@ public class PatientService {
     }
 
     @Transactional
-    public ResponseEntity<Map<String , Object>> filterByDoctorAndCondition(String condition, String doctorName, Long id){
+    public ResponseEntity<Map<String , Object>> filterByDoctorAndCondition(String condition, String doctorName, Long id, AppointmentPageQuery query){
         try{
-            List<Appointment> appointments = appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(doctorName, id , condition.equalsIgnoreCase("past") ? 1 : 0) ;
-            List<AppointmentDTO> dtoList = appointments.stream()
-                    .map(AppointmentDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(Map.of("appointments", dtoList));
+            return listAppointments(id, condition.equalsIgnoreCase("past") ? 1 : 0, doctorName, query);
         }catch (Exception e ){
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to filter appointments by doctor and condition"));
         }
     }
 
+    /**
+     * Version of the appointments of the patient behind the token, to answer conditional
+     * requests before any query runs; null if the token is not a patient's.
+     */
+    public PatientAppointmentVersions.Version appointmentVersion(String token) {
+        AuthPrincipal patient = tokenService.resolvePrincipal(token, "patient");
+        return patient == null ? null : patientVersions.current(patient.id());
+    }
+
     @Transactional
     public ResponseEntity<Map<String , Object>> getPatientDetails(String token){
         try{
@@ -142,4 +134,63 @@ public class PatientService {
         }
     }
 
+    // Status and doctor name are optional (null = any); returns one keyset page, or with a
+    // "since" version only what changed after it ("delta": false when that cannot be told)
+    private ResponseEntity<Map<String, Object>> listAppointments(Long patientId, Integer status, String doctorName,
+                                                                 AppointmentPageQuery query) {
+        // Read before the rows, so the version never claims changes the rows do not show
+        PatientAppointmentVersions.Version version = patientVersions.current(patientId);
+        if (query.since() != null) {
+            Set<Long> changed = patientVersions.changedSince(patientId, query.since());
+            if (changed != null) {
+                Map<String, Object> delta = changes(patientId, status, doctorName, query, changed);
+                delta.put("version", version.value());
+                return ResponseEntity.ok(delta);
+            }
+        }
+
+        AppointmentPaging.Cursor cursor;
+        try {
+            cursor = AppointmentPaging.Cursor.decode(query.cursor());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+        int limit = AppointmentPaging.limit(query.limit());
+        List<AppointmentDTO> rows = appointmentRepository.findDtoPageByPatientId(
+                patientId, status, doctorName,
+                AppointmentPaging.from(query.from()), AppointmentPaging.until(query.to()),
+                cursor.time(), cursor.id(), AppointmentPaging.probe(limit));
+        Map<String, Object> page = AppointmentPaging.page(rows, limit);
+        page.put("version", version.value());
+        if (query.since() != null) {
+            page.put("delta", false);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    // Changed appointments still in the listing come back in full, all others as removed ids
+    private Map<String, Object> changes(Long patientId, Integer status, String doctorName,
+                                        AppointmentPageQuery query, Set<Long> changed) {
+        LocalDateTime from = AppointmentPaging.from(query.from());
+        LocalDateTime until = AppointmentPaging.until(query.to());
+        String name = doctorName == null ? null : doctorName.toLowerCase();
+        List<AppointmentDTO> rows = changed.isEmpty() ? List.of() : appointmentRepository.findDtoByIdIn(changed);
+        List<AppointmentDTO> listed = rows.stream()
+                .filter(row -> row.getPatientId().equals(patientId))
+                .filter(row -> status == null || row.getStatus() == status)
+                .filter(row -> name == null || row.getDoctorName().toLowerCase().contains(name))
+                .filter(row -> !row.getAppointmentTime().isBefore(from) && row.getAppointmentTime().isBefore(until))
+                .sorted(Comparator.comparing(AppointmentDTO::getAppointmentTime).thenComparing(AppointmentDTO::getId))
+                .toList();
+        Set<Long> removed = new HashSet<>(changed);
+        listed.forEach(row -> removed.remove(row.getId()));
+
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("delta", true);
+        delta.put("appointments", listed);
+        delta.put("removed", removed);
+        return delta;
+    }
+
 }
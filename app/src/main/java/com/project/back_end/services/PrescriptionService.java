@@ -1,28 +1,62 @@
 package com.project.back_end.services;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.PrescriptionView;
+import com.project.back_end.config.MetricsConfig;
+import com.project.back_end.models.OutboxEvent;
 import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.OutboxEventRepository;
 import com.project.back_end.repo.PrescriptionRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_CALLS)
 @RequiredArgsConstructor
 public class PrescriptionService {
 
+    // Upper bound on one bulk request, keeps one request's outbox transaction short
+    static final int MAX_BULK_SIZE = 500;
+
     private final PrescriptionRepository prescriptionRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final AppointmentService appointmentService;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
-    @Transactional
+    /**
+     * Records the prescription in the MySQL outbox and completes its appointment in the same
+     * local transaction; {@link OutboxRelay} writes it to MongoDB shortly after.
+     */
     public ResponseEntity<Map<String, String>> savePrescription(Prescription prescription) {
         try {
-            prescriptionRepository.save(prescription);
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                outboxEventRepository.save(toOutboxEvent(prescription));
+                appointmentService.changeStatus(prescription.getAppointmentId(), 1);
+            });
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(Map.of("message", "Prescription saved"));
         } catch (Exception e) {
@@ -34,7 +68,7 @@ public class PrescriptionService {
     @Transactional
     public ResponseEntity<Map<String , Object>> getPrescription(Long appointmentId) {
         try {
-            List<Prescription> prescription = prescriptionRepository.findByAppointmentId(appointmentId);
+            List<PrescriptionView> prescription = prescriptionRepository.findViewByAppointmentId(appointmentId);
             if (Objects.nonNull(prescription)) {
                 return ResponseEntity.status(HttpStatus.OK)
                         .body(Map.of("prescription", prescription));
@@ -48,4 +82,80 @@ public class PrescriptionService {
         }
     }
 
+    /**
+     * Records a batch of prescriptions in the outbox and completes their appointments with one
+     * batched UPDATE, all in one local transaction. Every item gets its own result, so a bad
+     * entry does not reject the rest of the batch; {@link OutboxRelay} later writes the accepted
+     * ones to MongoDB with unordered bulk upserts.
+     */
+    public ResponseEntity<Map<String, Object>> savePrescriptions(List<Prescription> prescriptions) {
+        if (prescriptions == null || prescriptions.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "No prescriptions provided"));
+        }
+        if (prescriptions.size() > MAX_BULK_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "At most " + MAX_BULK_SIZE + " prescriptions per request"));
+        }
+
+        // 1️⃣ Validate each item, invalid ones are reported and left out
+        List<Map<String, Object>> results = new ArrayList<>(prescriptions.size());
+        List<OutboxEvent> events = new ArrayList<>();
+        Set<Long> completed = new LinkedHashSet<>();
+        for (int i = 0; i < prescriptions.size(); i++) {
+            Prescription prescription = prescriptions.get(i);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", i);
+            results.add(result);
+
+            Set<ConstraintViolation<Prescription>> violations = prescription == null
+                    ? Set.of() : validator.validate(prescription);
+            if (prescription == null || !violations.isEmpty()) {
+                result.put("status", "invalid");
+                result.put("message", prescription == null ? "Prescription is required" : violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            events.add(toOutboxEvent(prescription));
+            completed.add(prescription.getAppointmentId());
+            result.put("status", "saved");
+            result.put("id", prescription.getId());
+        }
+
+        // 2️⃣ One local transaction: outbox rows plus a single UPDATE ... WHERE id IN (...)
+        if (!events.isEmpty()) {
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    outboxEventRepository.saveAll(events);
+                    appointmentService.changeStatus(completed, 1);
+                });
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("message", "Error saving prescriptions"));
+            }
+        }
+
+        int saved = events.size();
+        HttpStatus status = saved == prescriptions.size() ? HttpStatus.CREATED
+                : saved == 0 ? HttpStatus.BAD_REQUEST : HttpStatus.MULTI_STATUS;
+        Map<String, Object> body = new HashMap<>();
+        body.put("saved", saved);
+        body.put("failed", prescriptions.size() - saved);
+        body.put("results", results);
+        return ResponseEntity.status(status).body(body);
+    }
+
+    // Assigns the document id up front: it is reported to the caller and makes relaying idempotent
+    private OutboxEvent toOutboxEvent(Prescription prescription) {
+        prescription.setId(new ObjectId().toHexString());
+        prescription.setCreatedAt(LocalDateTime.now());
+        try {
+            return new OutboxEvent(OutboxEvent.PRESCRIPTION_SAVED, prescription.getId(),
+                    objectMapper.writeValueAsString(prescription));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Prescription cannot be serialized", e);
+        }
+    }
+
 }
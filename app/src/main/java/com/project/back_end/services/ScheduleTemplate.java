@@ -0,0 +1,144 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.ScheduleException;
+import com.project.back_end.models.ScheduleRule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A doctor's compiled schedule: weekly rules, upcoming exceptions and slot length, turned into
+ * the {@link SlotBitmap} of any date.
+ * <p>
+ * Rules are cut into back-to-back slots of the doctor's slot length; slots that would overlap
+ * one already placed are skipped. On an exception date, time off is removed first and extra
+ * hours are added after, so a day can be replaced entirely. Doctors without rules keep their
+ * legacy {@code availableTimes} on every day, exceptions still apply. Days with the same slots
+ * share one bitmap instance, which keeps a materialized calendar down to a few references.
+ */
+public final class ScheduleTemplate {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int slotMinutes;
+    private final SlotBitmap legacy;
+    private final List<ScheduleRule> rules;
+    private final Map<LocalDate, List<ScheduleException>> exceptions;
+    private final Map<SlotBitmap, SlotBitmap> interned = new ConcurrentHashMap<>();
+
+    private ScheduleTemplate(int slotMinutes, SlotBitmap legacy, List<ScheduleRule> rules,
+                             Map<LocalDate, List<ScheduleException>> exceptions) {
+        this.slotMinutes = slotMinutes;
+        this.legacy = legacy;
+        this.rules = rules;
+        this.exceptions = exceptions;
+    }
+
+    public static ScheduleTemplate of(Doctor doctor, Collection<ScheduleRule> rules,
+                                      Collection<ScheduleException> exceptions) {
+        Map<LocalDate, List<ScheduleException>> byDate = new HashMap<>();
+        for (ScheduleException exception : exceptions) {
+            byDate.computeIfAbsent(exception.getDate(), date -> new ArrayList<>()).add(exception);
+        }
+        return new ScheduleTemplate(doctor.slotLength(), SlotBitmap.parse(doctor.getAvailableTimes()),
+                List.copyOf(rules), byDate);
+    }
+
+    public int slotMinutes() {
+        return slotMinutes;
+    }
+
+    public SlotBitmap slotsOn(LocalDate date) {
+        String[] labels = new String[SlotBitmap.QUARTERS_PER_DAY];
+        boolean[] covered = new boolean[SlotBitmap.QUARTERS_PER_DAY];
+
+        // 1️⃣ Weekly rules, or the legacy daily slots when the doctor has none
+        if (rules.isEmpty()) {
+            for (int quarter = 0; quarter < SlotBitmap.QUARTERS_PER_DAY; quarter++) {
+                labels[quarter] = legacy.label(quarter);
+                // Legacy slots may span several quarters, none of which extra hours may take
+                int last = quarter + legacy.quarters(quarter);
+                for (int inner = quarter; inner < last; inner++) {
+                    covered[inner] = true;
+                }
+            }
+        } else {
+            for (ScheduleRule rule : rules) {
+                if (rule.appliesTo(date)) {
+                    addWindow(labels, covered, rule.getStartTime(), rule.getEndTime());
+                }
+            }
+        }
+
+        // 2️⃣ Exceptions of the day: time off first, then extra hours
+        List<ScheduleException> ofDay = exceptions.getOrDefault(date, List.of());
+        for (ScheduleException exception : ofDay) {
+            if (!exception.isAvailable()) {
+                removeWindow(labels, covered, exception);
+            }
+        }
+        for (ScheduleException exception : ofDay) {
+            if (exception.isAvailable() && !exception.isWholeDay()) {
+                addWindow(labels, covered, exception.getStartTime(), exception.getEndTime());
+            }
+        }
+
+        SlotBitmap slots = SlotBitmap.of(labels);
+        // Keyed on the whole bitmap: days with the same starts may still label them differently
+        return interned.computeIfAbsent(slots, key -> slots);
+    }
+
+    private void addWindow(String[] labels, boolean[] covered, LocalTime start, LocalTime end) {
+        int from = roundUpToQuarter(minuteOf(start));
+        int until = end.equals(LocalTime.MIDNIGHT) ? MINUTES_PER_DAY : minuteOf(end);
+        for (int minute = from; minute + slotMinutes <= until; minute += slotMinutes) {
+            int first = minute / SlotBitmap.SLOT_MINUTES;
+            int last = (minute + slotMinutes) / SlotBitmap.SLOT_MINUTES;
+            if (isFree(labels, covered, first, last)) {
+                labels[first] = label(minute, minute + slotMinutes);
+                for (int quarter = first; quarter < last; quarter++) {
+                    covered[quarter] = true;
+                }
+            }
+        }
+    }
+
+    private static void removeWindow(String[] labels, boolean[] covered, ScheduleException exception) {
+        int from = exception.isWholeDay() ? 0 : minuteOf(exception.getStartTime()) / SlotBitmap.SLOT_MINUTES;
+        int until = exception.isWholeDay() || exception.getEndTime().equals(LocalTime.MIDNIGHT)
+                ? SlotBitmap.QUARTERS_PER_DAY
+                : (minuteOf(exception.getEndTime()) + SlotBitmap.SLOT_MINUTES - 1) / SlotBitmap.SLOT_MINUTES;
+        for (int quarter = from; quarter < until; quarter++) {
+            labels[quarter] = null;
+            covered[quarter] = false;
+        }
+    }
+
+    private static boolean isFree(String[] labels, boolean[] covered, int first, int last) {
+        for (int quarter = first; quarter < last; quarter++) {
+            if (labels[quarter] != null || covered[quarter]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int roundUpToQuarter(int minute) {
+        return (minute + SlotBitmap.SLOT_MINUTES - 1) / SlotBitmap.SLOT_MINUTES * SlotBitmap.SLOT_MINUTES;
+    }
+
+    private static String label(int startMinute, int endMinute) {
+        return String.format("%02d:%02d-%02d:%02d", startMinute / 60, startMinute % 60, endMinute / 60, endMinute % 60);
+    }
+}
@@ -1,33 +1,33 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AppointmentPageQuery;
+import com.project.back_end.DTO.AuthPrincipal;
 import com.project.back_end.DTO.Login;
+import com.project.back_end.config.MetricsConfig;
 import com.project.back_end.models.Admin;
-import com.project.back_end.models.Appointment;
-import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AdminRepository;
-import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
+@Timed(MetricsConfig.SERVICE_CALLS)
 @RequiredArgsConstructor
 public class Services {
     private final TokenService tokenService;
     private final AdminRepository adminRepository;
-    private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
     private final DoctorService doctorService;
     private final PatientService patientService;
+    private final PasswordVerifier passwordVerifier;
 
     public ResponseEntity<Map<String, String>> validateToken(String token, String user) {
         // Call your token service to validate the token
@@ -43,27 +43,16 @@ public class Services {
         }
     }
 
-    @Transactional
-    public ResponseEntity<Map<String , String>> validateAdmin(String username, String password){
-        try{
-            Admin foundAdmin = adminRepository.findByUsername(username);
-            if(foundAdmin == null){
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("error", "Admin not found"));
-            }
-            // Compare the plain password from request with stored passwordHash
-            // Based on the database, passwords are stored as plain text
-            if(foundAdmin.getPasswordHash().equals(password)){
-                String token = tokenService.generateToken(foundAdmin.getUsername());
-                return ResponseEntity.ok(Map.of("token", token));
-            } else {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("error", "Invalid password"));
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", e.getMessage()));
+    public CompletableFuture<ResponseEntity<Map<String , String>>> validateAdmin(String username, String password){
+        Admin foundAdmin = adminRepository.findByUsername(username);
+        if(foundAdmin == null){
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Admin not found")));
         }
+        // bcrypt check on the verifier pool; plain-text rows are rehashed on first login
+        return passwordVerifier.login("admin:" + username, password, foundAdmin.getPasswordHash(),
+                hash -> adminRepository.updatePassword(foundAdmin.getId(), foundAdmin.getPasswordHash(), hash),
+                () -> tokenService.generateToken(foundAdmin.getUsername()));
     }
 
     public Map<String, Object> filterDoctor(String name, String specialty, String time) {
@@ -91,58 +80,36 @@ public class Services {
         return result;
     }
 
-    public int validateAppointment(Appointment appointment){
-        Optional<Doctor> doctor = doctorRepository.findById(appointment.getDoctor().getId()) ;
-        if(!doctor.isPresent()){
-            return -1; // doctor doesn't exist
-        }
-        List<String> availableSlots = doctorService.getDoctorAvailability(doctor.get().getId(), appointment.getAppointmentDate()) ;
-        if(availableSlots.contains(appointment.getAppointmentTime().toString())){
-            return 1; // valid appointment time
-        } else {
-            return 0; // invalid appointment time
-        }
-    }
-
-
     public Boolean validatePatient(String email , String phoneNumber){
         return patientRepository.findByEmailOrPhone(email, phoneNumber) != null;
     }
 
-    public ResponseEntity<Map<String , String> > validatePatientLogin(Login login){
+    public CompletableFuture<ResponseEntity<Map<String , String>>> validatePatientLogin(Login login){
         Patient patient = patientRepository.findByEmail(login.getEmail());
         if(patient == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Patient not found"));
-        }
-        if(patient.getPassword().equals(login.getPassword())){
-            String token = tokenService.generateToken(patient.getEmail());
-            return ResponseEntity.ok(Map.of("token", token));
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid password"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Patient not found")));
         }
+        return passwordVerifier.login("patient:" + patient.getEmail(), login.getPassword(), patient.getPassword(),
+                hash -> patientRepository.updatePassword(patient.getId(), patient.getPassword(), hash),
+                () -> tokenService.generateToken(patient.getEmail()));
     }
-    public ResponseEntity<Map<String , Object>> filterPatient(String condition, String doctorName, String token){
-        String email = tokenService.extractIdentifier(token);
-        if(email == null || email.isEmpty()){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid token"));
-        }
-        Patient patient = patientRepository.findByEmail(email);
+    public ResponseEntity<Map<String , Object>> filterPatient(String condition, String doctorName, String token,
+                                                              AppointmentPageQuery query){
+        AuthPrincipal patient = tokenService.resolvePrincipal(token, "patient");
         if(patient == null){
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Patient not found"));
         }
 
         if (condition != null && !condition.isEmpty() && doctorName != null && !doctorName.isEmpty()) {
-            return patientService.filterByDoctorAndCondition(condition, doctorName, patient.getId());
+            return patientService.filterByDoctorAndCondition(condition, doctorName, patient.id(), query);
         } else if (condition != null && !condition.isEmpty()) {
-            return patientService.filterByCondition(condition, patient.getId());
+            return patientService.filterByCondition(condition, patient.id(), query);
         } else if (doctorName != null && !doctorName.isEmpty()) {
-            return patientService.filterByDoctor(doctorName , patient.getId());
+            return patientService.filterByDoctor(doctorName , patient.id(), query);
         } else {
-            return patientService.getPatientAppointment(patient.getId(), token);
+            return patientService.getPatientAppointment(patient.id(), token, query);
         }
     }
 
@@ -0,0 +1,210 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A doctor's daily slots as a 96-bit bitmap of quarter hours.
+ * <p>
+ * Bit {@code q} is set when a slot starts at minute {@code q * 15} of the day; bits 0-63 live in
+ * {@code lo} and bits 64-95 in {@code hi}. Slot labels such as "09:00-10:00" are parsed once
+ * when the bitmap is built, after which AM/PM checks and booked-slot subtraction are plain
+ * bitwise operations. Slots must start on a quarter hour, others are ignored.
+ */
+public final class SlotBitmap {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int QUARTERS_PER_DAY = 96;
+
+    private static final int MINUTES_PER_DAY = QUARTERS_PER_DAY * SLOT_MINUTES;
+
+    // Quarters 0-47 (00:00-11:45) are morning, all of them fit in the low word
+    private static final long AM_MASK = (1L << 48) - 1;
+
+    public static final SlotBitmap EMPTY = new SlotBitmap(0L, 0L, new String[QUARTERS_PER_DAY]);
+
+    private final long lo;
+    private final long hi;
+    private final String[] labels;
+
+    private SlotBitmap(long lo, long hi, String[] labels) {
+        this.lo = lo;
+        this.hi = hi;
+        this.labels = labels;
+    }
+
+    public static SlotBitmap parse(List<String> availableTimes) {
+        if (availableTimes == null || availableTimes.isEmpty()) {
+            return EMPTY;
+        }
+        long lo = 0L;
+        long hi = 0L;
+        String[] labels = new String[QUARTERS_PER_DAY];
+        for (String slot : availableTimes) {
+            int quarter = parseStartQuarter(slot);
+            if (quarter < 0 || labels[quarter] != null) {
+                continue;
+            }
+            labels[quarter] = slot;
+            if (quarter < 64) {
+                lo |= 1L << quarter;
+            } else {
+                hi |= 1L << (quarter - 64);
+            }
+        }
+        return new SlotBitmap(lo, hi, labels);
+    }
+
+    /**
+     * Builds a bitmap from per-quarter labels, where a non-null label marks a slot start.
+     */
+    static SlotBitmap of(String[] labels) {
+        long lo = 0L;
+        long hi = 0L;
+        String[] copy = new String[QUARTERS_PER_DAY];
+        for (int quarter = 0; quarter < QUARTERS_PER_DAY; quarter++) {
+            if (labels[quarter] == null) {
+                continue;
+            }
+            copy[quarter] = labels[quarter];
+            if (quarter < 64) {
+                lo |= 1L << quarter;
+            } else {
+                hi |= 1L << (quarter - 64);
+            }
+        }
+        return new SlotBitmap(lo, hi, copy);
+    }
+
+    /**
+     * Quarter-hour index of a time, or -1 when it does not fall on a quarter hour.
+     */
+    public static int quarterOf(LocalDateTime time) {
+        int minute = time.getHour() * 60 + time.getMinute();
+        if (minute % SLOT_MINUTES != 0 || time.getSecond() != 0 || time.getNano() != 0) {
+            return -1;
+        }
+        return minute / SLOT_MINUTES;
+    }
+
+    public boolean contains(int quarter) {
+        if (quarter < 0 || quarter >= QUARTERS_PER_DAY) {
+            return false;
+        }
+        return quarter < 64 ? (lo & (1L << quarter)) != 0 : (hi & (1L << (quarter - 64))) != 0;
+    }
+
+    public String label(int quarter) {
+        return contains(quarter) ? labels[quarter] : null;
+    }
+
+    /**
+     * Quarter hours taken by the slot starting at the given quarter, up to the end time of its
+     * label; just the starting quarter when the label has no usable end.
+     */
+    int quarters(int quarter) {
+        String label = label(quarter);
+        if (label == null) {
+            return 0;
+        }
+        int dash = label.indexOf('-');
+        int end = dash < 0 ? -1 : parseMinute(label.substring(dash + 1));
+        int last = (end + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        return last > quarter ? last - quarter : 1;
+    }
+
+    public boolean isEmpty() {
+        return lo == 0L && hi == 0L;
+    }
+
+    public boolean hasAm() {
+        return (lo & AM_MASK) != 0;
+    }
+
+    public boolean hasPm() {
+        return (lo & ~AM_MASK) != 0 || hi != 0;
+    }
+
+    public long lo() {
+        return lo;
+    }
+
+    public long hi() {
+        return hi;
+    }
+
+    /**
+     * Labels of the slots not marked in the given booked bitmap, in time order.
+     */
+    public List<String> freeLabels(long bookedLo, long bookedHi) {
+        long freeLo = lo & ~bookedLo;
+        long freeHi = hi & ~bookedHi;
+        List<String> free = new ArrayList<>(Long.bitCount(freeLo) + Long.bitCount(freeHi));
+        for (long bits = freeLo; bits != 0; bits &= bits - 1) {
+            free.add(labels[Long.numberOfTrailingZeros(bits)]);
+        }
+        for (long bits = freeHi; bits != 0; bits &= bits - 1) {
+            free.add(labels[64 + Long.numberOfTrailingZeros(bits)]);
+        }
+        return free;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SlotBitmap bitmap
+                && lo == bitmap.lo && hi == bitmap.hi && Arrays.equals(labels, bitmap.labels);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(lo) + Long.hashCode(hi);
+    }
+
+    private static int parseStartQuarter(String slot) {
+        int minute = parseMinute(slot);
+        if (minute < 0 || minute >= MINUTES_PER_DAY || minute % SLOT_MINUTES != 0) {
+            return -1;
+        }
+        return minute / SLOT_MINUTES;
+    }
+
+    // Minute of the day of a leading "H", "HH" or "HH:mm", up to 24:00; -1 when there is none
+    private static int parseMinute(String slot) {
+        if (slot == null) {
+            return -1;
+        }
+        int hour = 0;
+        int minute = 0;
+        int i = 0;
+        int length = slot.length();
+        while (i < length && slot.charAt(i) == ' ') {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && Character.isDigit(slot.charAt(i))) {
+            hour = hour * 10 + (slot.charAt(i++) - '0');
+            digits++;
+        }
+        if (digits == 0 || digits > 2) {
+            return -1;
+        }
+        if (i < length && slot.charAt(i) == ':') {
+            i++;
+            digits = 0;
+            while (i < length && Character.isDigit(slot.charAt(i))) {
+                minute = minute * 10 + (slot.charAt(i++) - '0');
+                digits++;
+            }
+            if (digits != 2) {
+                return -1;
+            }
+        }
+        int minuteOfDay = hour * 60 + minute;
+        if (minute > 59 || minuteOfDay > MINUTES_PER_DAY) {
+            return -1;
+        }
+        return minuteOfDay;
+    }
+}
@@ -0,0 +1,159 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AvailableSlot;
+import com.project.back_end.DTO.BookedSlot;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Finds the earliest free slots across every doctor of a specialty.
+ * <p>
+ * Bookings of all matching doctors over the range are read in one query and their calendars are
+ * resolved, cold ones loaded in one batch, on the request thread. Each doctor is then scanned in
+ * parallel, day by day, over those in-memory calendars only: free slots are the slot bits
+ * minus the booked bits, optionally masked to AM or PM, and a doctor stops after its first
+ * {@code limit} free slots. The per-doctor lists, already in time order, are merged through a
+ * heap until {@code limit} slots are taken.
+ */
+@Service
+@RequiredArgsConstructor
+public class SlotSearchService {
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 50;
+    static final int DEFAULT_DAYS = 14;
+    static final int MAX_DAYS = 60;
+
+    // Quarters 0-47 (00:00-11:45) are morning, all of them in the low word
+    private static final long AM_LO = (1L << 48) - 1;
+    private static final long[] NOTHING_BOOKED = new long[2];
+
+    private static final Comparator<AvailableSlot> EARLIEST_FIRST =
+            Comparator.comparing(AvailableSlot::start).thenComparing(AvailableSlot::doctorId);
+
+    private final DoctorDirectoryCache directoryCache;
+    private final DoctorScheduleCalendar scheduleCalendar;
+    private final AppointmentRepository appointmentRepository;
+
+    /**
+     * Returns up to {@code limit} free slots in time order, from {@code from} through {@code to}.
+     * Null arguments fall back to any specialty, any time of day, today, two weeks and 10 slots;
+     * past days and slots that already started are never offered.
+     */
+    public List<AvailableSlot> findEarliest(String specialty, String amOrPm, LocalDate from, LocalDate to,
+                                            Integer limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate first = from == null || from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        LocalDate cap = first.plusDays(MAX_DAYS - 1);
+        LocalDate last = to == null ? first.plusDays(DEFAULT_DAYS - 1) : (to.isAfter(cap) ? cap : to);
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<Doctor> doctors = directoryCache.get().filter(null, specialty, null);
+        if (last.isBefore(first) || doctors.isEmpty()) {
+            return List.of();
+        }
+
+        // 1️⃣ Bookings of every matching doctor over the range, as per-day booked bitmaps
+        List<Long> doctorIds = doctors.stream().map(Doctor::getId).toList();
+        Map<Long, Map<LocalDate, long[]>> booked = new HashMap<>();
+        for (BookedSlot slot : appointmentRepository.findBookedSlots(doctorIds, first.atStartOfDay(),
+                last.plusDays(1).atStartOfDay())) {
+            int quarter = SlotBitmap.quarterOf(slot.appointmentTime());
+            if (quarter < 0) {
+                continue;
+            }
+            long[] bits = booked.computeIfAbsent(slot.doctorId(), id -> new HashMap<>())
+                    .computeIfAbsent(slot.appointmentTime().toLocalDate(), day -> new long[2]);
+            bits[quarter >>> 6] |= 1L << (quarter & 63);
+        }
+
+        // 2️⃣ Calendars resolved here, so the parallel pass below never reaches the database
+        Map<Long, DoctorScheduleCalendar.Calendar> calendars = scheduleCalendar.calendarsOf(doctorIds);
+
+        // 3️⃣ Each doctor's earliest free slots, scanned in parallel
+        long[] half = halfMask(amOrPm);
+        List<List<AvailableSlot>> perDoctor = doctors.parallelStream()
+                .filter(doctor -> calendars.containsKey(doctor.getId()))
+                .map(doctor -> scan(doctor, calendars.get(doctor.getId()), first, last,
+                        booked.getOrDefault(doctor.getId(), Map.of()), half, now, size))
+                .filter(slots -> !slots.isEmpty())
+                .toList();
+
+        // 4️⃣ K-way merge of the sorted per-doctor lists
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(1, perDoctor.size()),
+                Comparator.comparing(Cursor::head, EARLIEST_FIRST));
+        for (List<AvailableSlot> slots : perDoctor) {
+            heap.add(new Cursor(slots, 0));
+        }
+        List<AvailableSlot> earliest = new ArrayList<>(size);
+        while (earliest.size() < size && !heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            earliest.add(cursor.head());
+            if (cursor.index() + 1 < cursor.slots().size()) {
+                heap.add(new Cursor(cursor.slots(), cursor.index() + 1));
+            }
+        }
+        return earliest;
+    }
+
+    private static List<AvailableSlot> scan(Doctor doctor, DoctorScheduleCalendar.Calendar calendar, LocalDate first,
+                                            LocalDate last, Map<LocalDate, long[]> booked, long[] half,
+                                            LocalDateTime now, int size) {
+        List<AvailableSlot> found = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last) && found.size() < size; day = day.plusDays(1)) {
+            SlotBitmap slots = calendar.slotsOn(day);
+            if (slots == null || slots.isEmpty()) {
+                continue;
+            }
+            long[] taken = booked.getOrDefault(day, NOTHING_BOOKED);
+            long lo = slots.lo() & ~taken[0] & half[0];
+            long hi = slots.hi() & ~taken[1] & half[1];
+            if (day.equals(now.toLocalDate())) {
+                // Only slots starting after the current quarter
+                int keep = (now.getHour() * 60 + now.getMinute()) / SlotBitmap.SLOT_MINUTES + 1;
+                lo &= keep >= 64 ? 0L : -1L << keep;
+                hi &= keep <= 64 ? -1L : (keep >= 128 ? 0L : -1L << (keep - 64));
+            }
+            for (long bits = lo; bits != 0 && found.size() < size; bits &= bits - 1) {
+                found.add(offer(doctor, day, slots, Long.numberOfTrailingZeros(bits)));
+            }
+            for (long bits = hi; bits != 0 && found.size() < size; bits &= bits - 1) {
+                found.add(offer(doctor, day, slots, 64 + Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        return found;
+    }
+
+    private static AvailableSlot offer(Doctor doctor, LocalDate day, SlotBitmap slots, int quarter) {
+        LocalDateTime start = day.atStartOfDay().plusMinutes((long) quarter * SlotBitmap.SLOT_MINUTES);
+        return new AvailableSlot(doctor.getId(), doctor.getName(), doctor.getSpecialty(), start,
+                start.plusMinutes(doctor.slotLength()), slots.label(quarter));
+    }
+
+    private static long[] halfMask(String amOrPm) {
+        if ("AM".equalsIgnoreCase(amOrPm)) {
+            return new long[]{AM_LO, 0L};
+        }
+        if ("PM".equalsIgnoreCase(amOrPm)) {
+            return new long[]{~AM_LO, -1L};
+        }
+        return new long[]{-1L, -1L};
+    }
+
+    private record Cursor(List<AvailableSlot> slots, int index) {
+
+        AvailableSlot head() {
+            return slots.get(index);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AuthPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded cache of verified tokens.
+ * <p>
+ * An entry holds the token subject and, per role, the principal it resolved to. Entries live
+ * until the earlier of the token's own expiry and the configured TTL, so a cached token is
+ * never accepted after it expires and identity changes are picked up within one TTL even
+ * when nobody evicts them explicitly.
+ * <p>
+ * Lookups are lock-free. Tokens are also indexed by subject, so evicting a user only touches
+ * that user's tokens; a put and an eviction of the same subject are serialized on the index.
+ * When the cache outgrows its bound, one caller sweeps out expired entries and then arbitrary
+ * ones down to 90% of the bound.
+ */
+@Component
+public class TokenCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> tokensBySubject = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public TokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries,
+                      @Value("${jwt.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public Entry get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            remove(token, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    public Entry put(String token, String subject, Date tokenExpiry) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        if (tokenExpiry != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiry.getTime());
+        }
+        Entry entry = new Entry(subject, expiresAt);
+        if (expiresAt <= now) {
+            return entry;
+        }
+        if (subject == null) {
+            entries.put(token, entry);
+        } else {
+            tokensBySubject.compute(subject, (key, tokens) -> {
+                Set<String> indexed = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+                indexed.add(token);
+                entries.put(token, entry);
+                return indexed;
+            });
+        }
+        if (entries.size() > maxEntries) {
+            sweep(now);
+        }
+        return entry;
+    }
+
+    /**
+     * Drops every cached token whose subject is the given username or email. Entries that a
+     * lookup is still holding stop accepting principals, so a principal read before the change
+     * is not cached again.
+     */
+    public void evictSubject(String subject) {
+        if (subject == null) {
+            return;
+        }
+        tokensBySubject.computeIfPresent(subject, (key, tokens) -> {
+            for (String token : tokens) {
+                Entry entry = entries.remove(token);
+                if (entry != null) {
+                    entry.evicted = true;
+                }
+            }
+            return null;
+        });
+    }
+
+    public void clear() {
+        entries.values().forEach(entry -> entry.evicted = true);
+        entries.clear();
+        tokensBySubject.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.forEach((token, entry) -> {
+                if (entry.expiresAt <= now) {
+                    remove(token, entry);
+                }
+            });
+            int target = maxEntries - maxEntries / 10;
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (entries.size() > target && it.hasNext()) {
+                Map.Entry<String, Entry> next = it.next();
+                remove(next.getKey(), next.getValue());
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private void remove(String token, Entry entry) {
+        if (entry.subject == null) {
+            if (entries.remove(token, entry)) {
+                entry.evicted = true;
+            }
+            return;
+        }
+        // Under the subject's index slot, so a concurrent put of the same token stays indexed
+        tokensBySubject.compute(entry.subject, (key, tokens) -> {
+            if (entries.remove(token, entry)) {
+                entry.evicted = true;
+                if (tokens != null) {
+                    tokens.remove(token);
+                }
+            }
+            return tokens == null || tokens.isEmpty() ? null : tokens;
+        });
+    }
+
+    public static final class Entry {
+        private final String subject;
+        private final long expiresAt;
+        private final Map<String, AuthPrincipal> principals = new ConcurrentHashMap<>(2);
+        private volatile boolean evicted;
+
+        private Entry(String subject, long expiresAt) {
+            this.subject = subject;
+            this.expiresAt = expiresAt;
+        }
+
+        public String subject() {
+            return subject;
+        }
+
+        public AuthPrincipal principal(String role) {
+            return principals.get(role);
+        }
+
+        public void putPrincipal(AuthPrincipal principal) {
+            principals.put(principal.role(), principal);
+            // An eviction that ran while the principal was being read wins
+            if (evicted) {
+                principals.remove(principal.role());
+            }
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.config.MetricsConfig;
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -18,6 +25,7 @@ import java.time.ZoneId;
 import java.util.Date;
 
 @Component
+@Timed(MetricsConfig.SERVICE_CALLS)
 @RequiredArgsConstructor
 public class TokenService {
 
@@ -29,6 +37,7 @@ public class TokenService {
     private final AdminRepository adminRepository;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
+    private final TokenCache tokenCache;
 
     @PostConstruct
     public void init() {
@@ -56,35 +65,81 @@ public class TokenService {
     // ✔ Extract subject (email/username)
     // -------------------------
     public String extractIdentifier(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return verify(token).subject();
     }
 
     // -------------------------
     // ✔ Validate token
     // -------------------------
     public boolean validateToken(String token, String userType) {
+        return resolvePrincipal(token, userType) != null;
+    }
+
+    // -------------------------
+    // ✔ Resolve the principal behind a token for a role
+    // -------------------------
+    // Returns null when the token is invalid/expired or no such user exists.
+    // Verified tokens and resolved principals are cached, so a warm token costs
+    // neither a signature check nor an identity query.
+    public AuthPrincipal resolvePrincipal(String token, String userType) {
         try {
-            String identifier = extractIdentifier(token);
+            TokenCache.Entry entry = verify(token);
+            String identifier = entry.subject();
             if (identifier == null || identifier.isEmpty()) {
-                return false;
+                return null;
             }
 
-            return switch (userType.toLowerCase()) {
-                case "admin" -> adminRepository.findByUsername(identifier) != null;
-                case "doctor" -> doctorRepository.findByEmail(identifier) != null;
-                case "patient" -> patientRepository.findByEmail(identifier) != null;
-                default -> false;
+            String role = userType.toLowerCase();
+            AuthPrincipal principal = entry.principal(role);
+            if (principal != null) {
+                return principal;
+            }
+
+            principal = switch (role) {
+                case "admin" -> {
+                    Admin admin = adminRepository.findByUsername(identifier);
+                    yield admin == null ? null : new AuthPrincipal(role, admin.getId().longValue(), identifier);
+                }
+                case "doctor" -> {
+                    Doctor doctor = doctorRepository.findByEmail(identifier);
+                    yield doctor == null ? null : new AuthPrincipal(role, doctor.getId(), identifier);
+                }
+                case "patient" -> {
+                    Patient patient = patientRepository.findByEmail(identifier);
+                    yield patient == null ? null : new AuthPrincipal(role, patient.getId(), identifier);
+                }
+                default -> null;
             };
+            if (principal != null) {
+                entry.putPrincipal(principal);
+            }
+            return principal;
         } catch (Exception e) {
-            return false;  // token invalid / expired
+            return null;  // token invalid / expired
         }
     }
 
+    // -------------------------
+    // ✔ Forget cached tokens of a user
+    // -------------------------
+    // Called when a doctor or patient is updated or deleted; runs after commit.
+    public void evictIdentifier(String identifier) {
+        TransactionHooks.afterCommit(() -> tokenCache.evictSubject(identifier));
+    }
+
+    private TokenCache.Entry verify(String token) {
+        TokenCache.Entry cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = Jwts.parser()
+                .verifyWith(secretKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return tokenCache.put(token, claims.getSubject(), claims.getExpiration());
+    }
+
     // -------------------------
     // ✔ Get signing key
     // -------------------------
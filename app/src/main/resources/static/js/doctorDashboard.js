@@ -1,12 +1,20 @@
-import { getAllAppointments } from "./services/appointmentRecordService.js";
+import { getAllAppointments, subscribeToAppointments } from "./services/appointmentRecordService.js";
+import { showLoadMore } from "./services/paging.js";
 import { createPatientRow } from "./components/patientRows.js";
 
+const patientTable = document.getElementById("patientTable");
 const patientTableBody = document.getElementById("patientTableBody");
 const todayISODate = () => new Date().toISOString().split("T")[0];
 
 let selectedDate = todayISODate();
 const token = localStorage.getItem("token");
 let patientName = "null";
+// Rows currently shown, by appointment id, so feed deltas can patch the table in place
+const rowsById = new Map();
+// Cursor of the listing's next page, null once the last page is shown
+let nextCursor = null;
+// Bumped on every reload so a late "load more" answer for an old listing is dropped
+let listingVersion = 0;
 
 const normalizedAppointments = (payload) => {
   if (Array.isArray(payload)) {
@@ -28,13 +36,109 @@ const showTableMessage = (message) => {
   patientTableBody.appendChild(messageRow);
 };
 
+const buildRow = (appointment) => {
+  const patient = {
+    id:
+      appointment?.patient?.id ??
+      appointment?.patientId ??
+      appointment?.patient?.patientId ??
+      "N/A",
+    name:
+      appointment?.patient?.name ??
+      appointment?.patientName ??
+      "Unknown Patient",
+    phone:
+      appointment?.patient?.phone ??
+      appointment?.patientPhone ??
+      "Not Provided",
+    email:
+      appointment?.patient?.email ??
+      appointment?.patientEmail ??
+      "Not Provided",
+  };
+
+  const doctorId =
+    appointment?.doctor?.id ?? appointment?.doctorId ?? "unknown";
+
+  const row = createPatientRow(patient, appointment?.id, doctorId);
+  row.dataset.appointmentTime = appointment?.appointmentTime ?? "";
+  return row;
+};
+
+const isShown = (appointment) =>
+  appointment.appointmentDate === selectedDate &&
+  (patientName === "null" ||
+    (appointment.patientName ?? "").toLowerCase().includes(patientName.toLowerCase()));
+
+// Applies one delta from the live feed without going back to the server
+const applyChange = (change) => {
+  const existing = rowsById.get(change.appointmentId);
+  if (existing) {
+    existing.remove();
+    rowsById.delete(change.appointmentId);
+  }
+  if (change.type !== "upsert" || !isShown(change.appointment)) {
+    return;
+  }
+  // Past the loaded pages: it arrives with a later page instead
+  const shown = [...rowsById.values()];
+  if (nextCursor && shown.length &&
+    (change.appointment?.appointmentTime ?? "") > shown[shown.length - 1].dataset.appointmentTime) {
+    return;
+  }
+
+  if (!rowsById.size) {
+    patientTableBody.innerHTML = "";
+  }
+  const row = buildRow(change.appointment);
+  const next = [...rowsById.values()].find(
+    (other) => other.dataset.appointmentTime > row.dataset.appointmentTime
+  );
+  patientTableBody.insertBefore(row, next ?? null);
+  rowsById.set(change.appointmentId, row);
+};
+
+const appendAppointments = (appointments) => {
+  appointments.forEach((appointment) => {
+    rowsById.get(appointment.id)?.remove();
+    const row = buildRow(appointment);
+    patientTableBody.appendChild(row);
+    rowsById.set(appointment.id, row);
+  });
+};
+
+const updateLoadMore = (cursor) => {
+  nextCursor = cursor ?? null;
+  if (patientTable) {
+    showLoadMore(patientTable, nextCursor, loadMoreAppointments);
+  }
+};
+
+// Next page of the current listing, fetched only when the user asks for it
+const loadMoreAppointments = async (cursor) => {
+  const version = listingVersion;
+  try {
+    const data = await getAllAppointments(selectedDate, patientName, token, cursor);
+    if (version !== listingVersion) {
+      return;
+    }
+    appendAppointments(normalizedAppointments(data));
+    updateLoadMore(data?.nextCursor);
+  } catch (error) {
+    console.error("loadMoreAppointments :: error", error);
+  }
+};
+
 const loadAppointments = async () => {
   if (!patientTableBody) {
     console.warn("Patient table body not found");
     return;
   }
 
+  const version = ++listingVersion;
   patientTableBody.innerHTML = "";
+  rowsById.clear();
+  updateLoadMore(null);
 
   if (!token) {
     showTableMessage("Please login to view appointments.");
@@ -43,6 +147,9 @@ const loadAppointments = async () => {
 
   try {
     const data = await getAllAppointments(selectedDate, patientName, token);
+    if (version !== listingVersion) {
+      return;
+    }
     const appointments = normalizedAppointments(data);
 
     if (!appointments.length) {
@@ -50,33 +157,8 @@ const loadAppointments = async () => {
       return;
     }
 
-    appointments.forEach((appointment) => {
-      const patient = {
-        id:
-          appointment?.patient?.id ??
-          appointment?.patientId ??
-          appointment?.patient?.patientId ??
-          "N/A",
-        name:
-          appointment?.patient?.name ??
-          appointment?.patientName ??
-          "Unknown Patient",
-        phone:
-          appointment?.patient?.phone ??
-          appointment?.patientPhone ??
-          "Not Provided",
-        email:
-          appointment?.patient?.email ??
-          appointment?.patientEmail ??
-          "Not Provided",
-      };
-
-      const doctorId =
-        appointment?.doctor?.id ?? appointment?.doctorId ?? "unknown";
-
-      const row = createPatientRow(patient, appointment?.id, doctorId);
-      patientTableBody.appendChild(row);
-    });
+    appendAppointments(appointments);
+    updateLoadMore(data?.nextCursor);
   } catch (error) {
     console.error("loadAppointments :: error", error);
     showTableMessage("Error loading appointments. Try again later.");
@@ -133,4 +215,15 @@ document.addEventListener("DOMContentLoaded", () => {
   bindTodayButton();
   bindDatePicker();
   loadAppointments();
+
+  if (token && patientTableBody) {
+    // Reload after a reconnect to pick up anything missed while disconnected
+    let connectedOnce = false;
+    subscribeToAppointments(token, applyChange, () => {
+      if (connectedOnce) {
+        loadAppointments();
+      }
+      connectedOnce = true;
+    });
+  }
 });
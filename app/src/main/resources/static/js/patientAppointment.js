@@ -1,12 +1,17 @@
 // patientAppointment.js
 import { getPatientAppointments, getPatientData, filterAppointments } from "./services/patientServices.js";
+import { showLoadMore } from "./services/paging.js";
 
+const table = document.getElementById("patientTable");
 const tableBody = document.getElementById("patientTableBody");
 const token = localStorage.getItem("token");
 
 let allAppointments = [];
 let filteredAppointments = [];
 let patientId = null;
+// The listing on screen (all appointments or the current filter): how to fetch a page of it
+// and the rows loaded so far
+let listing = null;
 
 document.addEventListener("DOMContentLoaded", initializePage);
 
@@ -19,16 +24,29 @@ async function initializePage() {
 
     patientId = Number(patient.id);
 
-    const appointmentData = await getPatientAppointments(patientId, token, "patient") || [];
-    allAppointments = appointmentData.filter(app => app.patientId === patientId);
+    listing = { fetch: (cursor) => getPatientAppointments(patientId, token, "patient", cursor) };
+    const page = await listing.fetch() || { appointments: [] };
+    allAppointments = page.appointments.filter(app => app.patientId === patientId);
+    listing.appointments = allAppointments;
 
     renderAppointments(allAppointments);
+    showLoadMore(table, page.nextCursor, loadMore);
   } catch (error) {
     console.error("Error loading appointments:", error);
     alert("❌ Failed to load your appointments.");
   }
 }
 
+// Appends the next page of the current listing, fetched only when the user asks for it
+async function loadMore(cursor) {
+  const shown = listing;
+  const page = await shown.fetch(cursor);
+  if (!page || shown !== listing) return;
+  shown.appointments.push(...page.appointments.filter(app => app.patientId === patientId));
+  renderAppointments(shown.appointments);
+  showLoadMore(table, page.nextCursor, loadMore);
+}
+
 function renderAppointments(appointments) {
   tableBody.innerHTML = "";
 
@@ -92,11 +110,16 @@ async function handleFilterChange() {
   const condition = filterValue === "allAppointments" ? null : filterValue || null;
 
   try {
-    const response = await filterAppointments(condition, name, token);
+    const filtered = { fetch: (cursor) => filterAppointments(condition, name, token, cursor) };
+    listing = filtered;
+    const response = await filtered.fetch();
+    if (filtered !== listing) return;
     const appointments = response?.appointments || [];
     filteredAppointments = appointments.filter(app => app.patientId === patientId);
+    filtered.appointments = filteredAppointments;
 
     renderAppointments(filteredAppointments);
+    showLoadMore(table, response?.nextCursor, loadMore);
   } catch (error) {
     console.error("Failed to filter appointments:", error);
     alert("❌ An error occurred while filtering appointments.");
@@ -1,13 +1,16 @@
 // patientRecordServices.js
 import { getPatientAppointments } from "./services/patientServices.js";
+import { showLoadMore } from "./services/paging.js";
 import { createPatientRecordRow } from './components/patientRecordRow.js';
 
+const table = document.getElementById("patientTable");
 const tableBody = document.getElementById("patientTableBody");
 const token = localStorage.getItem("token");
 
 const urlParams = new URLSearchParams(window.location.search);
 const patientId = urlParams.get("id");
 const doctorId = urlParams.get("doctorId");
+let records = [];
 
 document.addEventListener("DOMContentLoaded", initializePage);
 
@@ -15,19 +18,23 @@ async function initializePage() {
   try {
     if (!token) throw new Error("No token found");
 
-    const appointmentData = await getPatientAppointments(patientId, token, "doctor") || [];
-
-    // Filter by both patientId and doctorId
-    const filteredAppointments = appointmentData.filter(app =>
-      app.doctorId == doctorId);
-    console.log(filteredAppointments)
-    renderAppointments(filteredAppointments);
+    await loadPage();
   } catch (error) {
     console.error("Error loading appointments:", error);
     alert("❌ Failed to load your appointments.");
   }
 }
 
+// First page on load; later pages only when the user asks for them
+async function loadPage(cursor = null) {
+  const page = await getPatientAppointments(patientId, token, "doctor", cursor) || { appointments: [] };
+
+  // Filter by both patientId and doctorId
+  records.push(...page.appointments.filter(app => app.doctorId == doctorId));
+  renderAppointments(records);
+  showLoadMore(table, page.nextCursor, loadPage);
+}
+
 function renderAppointments(appointments) {
   tableBody.innerHTML = "";
 
@@ -1,16 +1,24 @@
 // appointmentRecordService.js
 import { API_BASE_URL } from "../config/config.js";
+import { fetchAppointmentPage } from "./paging.js";
 const APPOINTMENT_API = `${API_BASE_URL}/appointments`;
 
 
-//This is for the doctor to get all the patient Appointments
-export async function getAllAppointments(date, patientName, token) {
-  const response = await fetch(`${APPOINTMENT_API}/${date}/${patientName}/${token}`);
-  if (!response.ok) {
+//This is for the doctor to get the patient Appointments of a day, one page at a time
+export async function getAllAppointments(date, patientName, token, cursor = null) {
+  try {
+    return await fetchAppointmentPage(`${APPOINTMENT_API}/${date}/${patientName}/${token}`, cursor);
+  } catch (error) {
     throw new Error("Failed to fetch appointments");
   }
+}
 
-  return await response.json();
+// Live feed of the doctor's appointment changes (Server-Sent Events); EventSource reconnects on its own
+export function subscribeToAppointments(token, onChange, onOpen) {
+  const source = new EventSource(`${APPOINTMENT_API}/stream/${token}`);
+  source.addEventListener("appointment", (event) => onChange(JSON.parse(event.data)));
+  source.addEventListener("open", () => onOpen && onOpen());
+  return source;
 }
 
 export async function bookAppointment(appointment, token) {
@@ -125,3 +125,28 @@ export async function filterDoctors(name, time, specialty) {
     return { doctors: [] };
   }
 }
+
+export async function getEarliestSlots(token, { specialty, time, from, to, limit } = {}) {
+  const params = new URLSearchParams();
+  if (specialty) params.set("speciality", specialty);
+  if (time) params.set("time", time);
+  if (from) params.set("from", from);
+  if (to) params.set("to", to);
+  if (limit) params.set("limit", limit);
+
+  try {
+    const response = await fetch(
+      `${DOCTOR_API}/earliest/${encodeURIComponent(token)}?${params}`
+    );
+
+    if (!response.ok) {
+      throw new Error(`Failed to search slots: ${response.status}`);
+    }
+
+    const data = await response.json();
+    return Array.isArray(data?.slots) ? data.slots : [];
+  } catch (error) {
+    console.error("getEarliestSlots :: error", error);
+    return [];
+  }
+}
@@ -0,0 +1,49 @@
+// paging.js
+
+/**
+ * Appointment listings are keyset-paged: each page carries "nextCursor" until the last one.
+ * Fetches a single page, the first one when no cursor is given, or throws with the failing
+ * response attached.
+ */
+export async function fetchAppointmentPage(url, cursor = null, options = {}) {
+  const separator = url.includes("?") ? "&" : "?";
+  const pageUrl = cursor ? `${url}${separator}cursor=${encodeURIComponent(cursor)}` : url;
+  const response = await fetch(pageUrl, options);
+  const page = await response.json();
+  if (!response.ok || page.error) {
+    const error = new Error(page.error || response.statusText);
+    error.response = response;
+    throw error;
+  }
+  return { ...page, appointments: page.appointments || [] };
+}
+
+/**
+ * Keeps a "Load more" button right after the table while the listing has a next page, so
+ * further pages are only fetched when the user asks for them.
+ */
+export function showLoadMore(table, nextCursor, onLoadMore) {
+  const id = `${table.id}LoadMore`;
+  let button = document.getElementById(id);
+  if (!nextCursor) {
+    button?.remove();
+    return;
+  }
+  if (!button) {
+    button = document.createElement("button");
+    button.id = id;
+    button.type = "button";
+    button.className = "btn";
+    button.textContent = "Load more";
+    table.after(button);
+  }
+  button.disabled = false;
+  button.onclick = async () => {
+    button.disabled = true;
+    try {
+      await onLoadMore(nextCursor);
+    } finally {
+      button.disabled = false;
+    }
+  };
+}
@@ -1,5 +1,6 @@
 // patientServices
 import { API_BASE_URL } from "../config/config.js";
+import { fetchAppointmentPage } from "./paging.js";
 const PATIENT_API = API_BASE_URL + '/patient'
 
 
@@ -55,15 +56,10 @@ export async function getPatientData(token) {
 }
 
 // the Backend API for fetching the patient record(visible in Doctor Dashboard) and Appointments (visible in Patient Dashboard) are same based on user(patient/doctor).
-export async function getPatientAppointments(id, token, user) {
+// Returns one page ({ appointments, nextCursor }); pass nextCursor back for the following one.
+export async function getPatientAppointments(id, token, user, cursor = null) {
   try {
-    const response = await fetch(`${PATIENT_API}/${id}/${user}/${token}`);
-    const data = await response.json();
-    console.log(data.appointments)
-    if (response.ok) {
-      return data.appointments;
-    }
-    return null;
+    return await fetchAppointmentPage(`${PATIENT_API}/${id}/${user}/${token}`, cursor);
   }
   catch (error) {
     console.error("Error fetching patient details:", error);
@@ -71,25 +67,19 @@ export async function getPatientAppointments(id, token, user) {
   }
 }
 
-export async function filterAppointments(condition, name, token) {
+export async function filterAppointments(condition, name, token, cursor = null) {
   try {
-    const response = await fetch(`${PATIENT_API}/filter/${condition}/${name}/${token}`, {
+    return await fetchAppointmentPage(`${PATIENT_API}/filter/${condition}/${name}/${token}`, cursor, {
       method: "GET",
       headers: {
         "Content-Type": "application/json",
       },
     });
-
-    if (response.ok) {
-      const data = await response.json();
-      return data;
-
-    } else {
-      console.error("Failed to fetch doctors:", response.statusText);
+  } catch (error) {
+    if (error.response) {
+      console.error("Failed to fetch doctors:", error.message);
       return { appointments: [] };
-
     }
-  } catch (error) {
     console.error("Error:", error);
     alert("Something went wrong!");
     return { appointments: [] };
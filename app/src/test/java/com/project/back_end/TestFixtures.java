@@ -0,0 +1,55 @@
+package com.project.back_end;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Valid, not yet saved entities for tests. Emails are unique per call, so tests sharing a
+ * context can save as many as they need without tripping the unique constraints.
+ */
+public final class TestFixtures {
+
+	private static final AtomicLong SEQUENCE = new AtomicLong();
+
+	private TestFixtures() {
+	}
+
+	public static Doctor doctor(String name, String... availableTimes) {
+		Doctor doctor = new Doctor();
+		doctor.setName(name);
+		doctor.setSpecialty("Cardiologist");
+		doctor.setEmail(uniqueEmail("doctor"));
+		doctor.setPassword("secret123");
+		doctor.setPhone("555-000-0000");
+		doctor.setAvailableTimes(List.of(availableTimes));
+		return doctor;
+	}
+
+	public static Patient patient(String name) {
+		Patient patient = new Patient();
+		patient.setName(name);
+		patient.setEmail(uniqueEmail("patient"));
+		patient.setPassword("secret123");
+		patient.setPhone("555-111-1111");
+		patient.setAddress("1 Test Street");
+		return patient;
+	}
+
+	public static Appointment appointment(Doctor doctor, Patient patient, LocalDateTime time, int status) {
+		Appointment appointment = new Appointment();
+		appointment.setDoctor(doctor);
+		appointment.setPatient(patient);
+		appointment.setAppointmentTime(time);
+		appointment.setStatus(status);
+		return appointment;
+	}
+
+	private static String uniqueEmail(String prefix) {
+		return prefix + "." + System.nanoTime() + "." + SEQUENCE.incrementAndGet() + "@example.com";
+	}
+}
@@ -0,0 +1,80 @@
+package com.project.back_end;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Profile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Fires more simultaneous blocking requests than Tomcat has platform worker threads (200) and
+// checks they are all in flight at once, which only happens when requests run on virtual threads.
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "virtual-threads", "load-test"})
+class VirtualThreadLoadTests {
+
+	private static final int PLATFORM_WORKER_THREADS = 200;
+	private static final int REQUESTS = 1000;
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void blockingRequestsScalePastPlatformThreadPool() {
+		SlowEndpoint.reset();
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/load-test/slow")).build();
+
+		List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+		for (int i = 0; i < REQUESTS; i++) {
+			responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+		}
+
+		for (CompletableFuture<HttpResponse<String>> response : responses) {
+			assertEquals(200, response.join().statusCode());
+		}
+		assertTrue(SlowEndpoint.maxInFlight.get() > PLATFORM_WORKER_THREADS,
+				"max in flight: " + SlowEndpoint.maxInFlight.get());
+	}
+
+	// Stands in for a handler waiting on JDBC or MongoDB I/O
+	@Profile("load-test")
+	@RestController
+	static class SlowEndpoint {
+
+		static final AtomicInteger inFlight = new AtomicInteger();
+		static final AtomicInteger maxInFlight = new AtomicInteger();
+
+		static void reset() {
+			inFlight.set(0);
+			maxInFlight.set(0);
+		}
+
+		@GetMapping("/load-test/slow")
+		String slow() throws InterruptedException {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(2000);
+				return "ok";
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.project.back_end.monitoring;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.DoctorScheduleCalendar;
+import com.project.back_end.services.TokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Profile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.project.back_end.TestFixtures.appointment;
+import static com.project.back_end.TestFixtures.doctor;
+import static com.project.back_end.TestFixtures.patient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "query-budget-test"})
+class QueryBudgetTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private TokenService tokenService;
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private PatientRepository patientRepository;
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+	@Autowired
+	private MeterRegistry registry;
+	@Autowired
+	private DoctorScheduleCalendar scheduleCalendar;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private Doctor doctor;
+	private Patient patient;
+	private LocalDate day;
+
+	@BeforeEach
+	void setUp() {
+		doctor = doctorRepository.save(doctor("Dr. Budget", "09:00-10:00", "10:00-11:00", "15:00-16:00"));
+		patient = patientRepository.save(patient("Budget Patient"));
+		day = LocalDate.now().plusDays(3);
+		// Enough rows that a per-row lazy load would show up as repeated statements
+		for (int hour = 9; hour < 15; hour++) {
+			appointmentRepository.save(appointment(doctor, patient, day.atTime(hour, 0), 0));
+		}
+	}
+
+	@Test
+	void budgetedRoutesStayWithinTheirBudget() throws Exception {
+		String doctorToken = tokenService.generateToken(doctor.getEmail());
+		String patientToken = tokenService.generateToken(patient.getEmail());
+		List<String> routes = List.of(
+				"/doctor",
+				// First over cold calendars: their loads run on the request thread and count here
+				"/doctor/earliest/" + patientToken + "?speciality=Cardiologist",
+				"/doctor/filter?speciality=Cardiologist&time=AM",
+				"/doctor/availability/patient/" + doctor.getId() + "/" + day + "/" + patientToken,
+				"/appointments/" + day + "/null/" + doctorToken,
+				"/patient/" + patientToken,
+				"/patient/" + patient.getId() + "/" + patientToken,
+				"/patient/filter/" + patientToken + "?condition=future");
+
+		scheduleCalendar.clear();
+		double budgetBefore = violations("budget");
+		double repeatedBefore = violations("repeated");
+
+		// Cold caches first, then warm
+		for (int round = 0; round < 2; round++) {
+			for (String route : routes) {
+				assertEquals(200, get(route).statusCode(), route);
+			}
+		}
+		assertEquals(budgetBefore, violations("budget"));
+		assertEquals(repeatedBefore, violations("repeated"));
+	}
+
+	@Test
+	void routeOverBudgetFailsTheRequest() throws Exception {
+		double budgetBefore = violations("budget");
+		double repeatedBefore = violations("repeated");
+
+		HttpResponse<String> response = get("/test/over-budget");
+
+		assertEquals(500, response.statusCode());
+		assertFalse(response.body().contains("done"), response.body());
+		assertEquals(budgetBefore + 1, violations("budget"));
+		assertEquals(repeatedBefore + 1, violations("repeated"));
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	private double violations(String kind) {
+		return registry.find("query.budget.violations").tag("kind", kind).counters().stream()
+				.mapToDouble(Counter::count)
+				.sum();
+	}
+
+	// Stands in for a handler that loads rows one by one
+	@Profile("query-budget-test")
+	@RestController
+	static class OverBudgetController {
+
+		private final PatientRepository patientRepository;
+
+		OverBudgetController(PatientRepository patientRepository) {
+			this.patientRepository = patientRepository;
+		}
+
+		@QueryBudget(statements = 2)
+		@GetMapping("/test/over-budget")
+		Map<String, Object> overBudget() {
+			for (int i = 0; i < 4; i++) {
+				patientRepository.findByEmailOrPhone("nobody" + i + "@example.com", "000-000-0000");
+			}
+			return Map.of("done", true);
+		}
+	}
+}
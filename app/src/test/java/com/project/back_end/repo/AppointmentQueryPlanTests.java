@@ -0,0 +1,82 @@
+package com.project.back_end.repo;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Guards the appointment access paths against silently falling back to table scans. Runs on a
+// private H2 database seeded from database_sturcture.sql; the SQL mirrors AppointmentRepository.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:plans;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AppointmentQueryPlanTests {
+
+	// Everything after this marker is Mongo data and MySQL stored procedures
+	private static final String SEED_END_MARKER = "-- use prescriptions";
+
+	private static final String DTO_JOIN = "SELECT a.id, d.name, p.name, a.appointment_time, a.status " +
+			"FROM appointment a JOIN doctor d ON d.id = a.doctor_id JOIN patient p ON p.id = a.patient_id ";
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@BeforeAll
+	void seed() throws IOException {
+		String script = new ClassPathResource("database_sturcture.sql").getContentAsString(StandardCharsets.UTF_8);
+		script = script.substring(0, script.indexOf(SEED_END_MARKER));
+		for (String statement : script.split(";")) {
+			if (!statement.isBlank()) {
+				jdbc.execute(statement.trim());
+			}
+		}
+		jdbc.execute("ANALYZE");
+	}
+
+	@Test
+	void doctorDayListingSeeksDoctorTimeKey() {
+		String plan = explain(DTO_JOIN +
+				"WHERE a.doctor_id = 1 AND a.appointment_time >= TIMESTAMP '2025-05-01 00:00:00' " +
+				"AND a.appointment_time < TIMESTAMP '2025-05-02 00:00:00' " +
+				"AND p.name_lower LIKE '%smith%' ORDER BY a.appointment_time, a.id");
+
+		assertTrue(plan.contains("UK_APPOINTMENT_DOCTOR_TIME"), plan);
+		assertTrue(plan.contains("PRIMARY_KEY"), plan);
+		assertFalse(plan.contains("tableScan"), plan);
+	}
+
+	@Test
+	void patientListingSeeksPatientTimeIndex() {
+		String plan = explain(DTO_JOIN +
+				"WHERE a.patient_id = 1 AND a.appointment_time >= TIMESTAMP '2025-01-01 00:00:00' " +
+				"ORDER BY a.appointment_time, a.id");
+
+		assertTrue(plan.contains("IDX_APPOINTMENT_PATIENT_TIME"), plan);
+		assertFalse(plan.contains("tableScan"), plan);
+	}
+
+	@Test
+	void patientStatusFilterSeeksPatientIndex() {
+		String plan = explain(DTO_JOIN +
+				"WHERE a.patient_id = 1 AND a.status = 0 AND a.appointment_time >= TIMESTAMP '2025-01-01 00:00:00' " +
+				"AND d.name_lower LIKE '%adams%' ORDER BY a.appointment_time, a.id");
+
+		// Either patient index is a seek; which one wins depends on status selectivity
+		assertTrue(plan.contains("IDX_APPOINTMENT_PATIENT_"), plan);
+		assertFalse(plan.contains("tableScan"), plan);
+	}
+
+	private String explain(String sql) {
+		return String.join("\n", jdbc.queryForList("EXPLAIN " + sql, String.class));
+	}
+}
@@ -0,0 +1,122 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.project.back_end.TestFixtures.appointment;
+import static com.project.back_end.TestFixtures.doctor;
+import static com.project.back_end.TestFixtures.patient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// BackEndApplication's explicit @ComponentScan rules out @DataJpaTest slicing
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestEntityManager
+@Transactional
+class AppointmentRepositoryTests {
+
+	private static final LocalDateTime NINE = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+	@Autowired
+	private TestEntityManager entityManager;
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	private Doctor adams;
+	private Doctor lee;
+	private Patient patient;
+
+	@BeforeEach
+	void setUp() {
+		adams = entityManager.persist(doctor("Dr. Emily Adams", "09:00-10:00", "10:00-11:00"));
+		lee = entityManager.persist(doctor("Dr. Sarah Lee", "09:00-10:00", "10:00-11:00"));
+		patient = entityManager.persist(patient("John Smith"));
+
+		entityManager.persist(appointment(adams, patient, NINE.plusHours(1), 0));
+		entityManager.persist(appointment(adams, patient, NINE, 1));
+		entityManager.persist(appointment(lee, patient, NINE.plusDays(1), 0));
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void projectsPatientAppointmentsInTimeOrder() {
+		List<AppointmentDTO> dtos = patientPage(null, null, null, null, 10);
+
+		assertEquals(3, dtos.size());
+		AppointmentDTO first = dtos.get(0);
+		assertEquals(NINE, first.getAppointmentTime());
+		assertEquals("Dr. Emily Adams", first.getDoctorName());
+		assertEquals(patient.getEmail(), first.getPatientEmail());
+		assertEquals(1, first.getStatus());
+		assertEquals(NINE.plusHours(1), first.getEndTime());
+	}
+
+	@Test
+	void filtersByStatusDoctorNameAndDate() {
+		assertEquals(2, patientPage(0, null, null, null, 10).size());
+		assertEquals(2, patientPage(null, "ADAMS", null, null, 10).size());
+		assertEquals(1, patientPage(0, "adams", null, null, 10).size());
+		assertEquals(1, patientPage(null, null, null, null, 10, NINE.plusDays(1)).size());
+	}
+
+	@Test
+	void keysetPagesResumeAfterTheLastRow() {
+		List<AppointmentDTO> firstPage = patientPage(null, null, null, null, 2);
+		assertEquals(2, firstPage.size());
+
+		AppointmentDTO last = firstPage.get(1);
+		List<AppointmentDTO> secondPage = patientPage(null, null, last.getAppointmentTime(), last.getId(), 2);
+		assertEquals(1, secondPage.size());
+		assertEquals(NINE.plusDays(1), secondPage.get(0).getAppointmentTime());
+	}
+
+	@Test
+	void doctorPageFiltersByPatientName() {
+		LocalDateTime from = NINE.toLocalDate().atStartOfDay();
+		LocalDateTime until = from.plusDays(1);
+		assertEquals(2, appointmentRepository.findDtoPageByDoctorId(adams.getId(), null, null,
+				from, until, from, 0L, Limit.of(10)).size());
+		assertEquals(2, appointmentRepository.findDtoPageByDoctorId(adams.getId(), null, "smith",
+				from, until, from, 0L, Limit.of(10)).size());
+		assertEquals(0, appointmentRepository.findDtoPageByDoctorId(adams.getId(), null, "nobody",
+				from, until, from, 0L, Limit.of(10)).size());
+	}
+
+	@Test
+	void exportChunksSeekThroughTheRangeInOrder() {
+		List<AppointmentDTO> first = appointmentRepository.findDtoChunkBetween(NINE, NINE.plusDays(1),
+				NINE.minusYears(1), 0L, Limit.of(1));
+		assertEquals(List.of(NINE), first.stream().map(AppointmentDTO::getAppointmentTime).toList());
+
+		AppointmentDTO last = first.get(0);
+		List<AppointmentDTO> next = appointmentRepository.findDtoChunkBetween(NINE, NINE.plusDays(1),
+				last.getAppointmentTime(), last.getId(), Limit.of(5));
+		assertEquals(List.of(NINE.plusHours(1)), next.stream().map(AppointmentDTO::getAppointmentTime).toList());
+	}
+
+	private List<AppointmentDTO> patientPage(Integer status, String doctorName, LocalDateTime afterTime, Long afterId, int limit) {
+		return patientPage(status, doctorName, afterTime, afterId, limit, null);
+	}
+
+	private List<AppointmentDTO> patientPage(Integer status, String doctorName, LocalDateTime afterTime, Long afterId,
+											 int limit, LocalDateTime from) {
+		LocalDateTime start = from != null ? from : NINE.minusYears(1);
+		return appointmentRepository.findDtoPageByPatientId(patient.getId(), status, doctorName,
+				start, NINE.plusYears(1),
+				afterTime != null ? afterTime : start, afterId != null ? afterId : 0L, Limit.of(limit));
+	}
+}
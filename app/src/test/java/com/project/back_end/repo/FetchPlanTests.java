@@ -0,0 +1,140 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentRef;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.monitoring.UnplannedFetchException;
+import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.DoctorService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.project.back_end.TestFixtures.appointment;
+import static com.project.back_end.TestFixtures.doctor;
+import static com.project.back_end.TestFixtures.patient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Associations are lazy and every access path names what it loads; the test profile turns any
+// other lazy load into an UnplannedFetchException
+@SpringBootTest
+@ActiveProfiles("test")
+class FetchPlanTests {
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private PatientRepository patientRepository;
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private DoctorService doctorService;
+	@Autowired
+	private AppointmentService appointmentService;
+
+	private Statistics statistics;
+	private Doctor doctor;
+	private Patient patient;
+	private Appointment appointment;
+	private LocalDate day;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		doctor = doctorRepository.save(doctor("Dr. Plan", "09:00-10:00", "10:00-11:00"));
+		patient = patientRepository.save(patient("Plan Patient"));
+		day = LocalDate.now().plusDays(5);
+		appointment = appointmentRepository.save(appointment(doctor, patient, day.atTime(9, 0), 0));
+	}
+
+	@Test
+	void appointmentRowsCarryOnlyReferences() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Appointment stored = appointmentRepository.findById(appointment.getId()).orElseThrow();
+
+			assertFalse(Hibernate.isInitialized(stored.getDoctor()));
+			assertFalse(Hibernate.isInitialized(stored.getPatient()));
+			assertEquals(doctor.getId(), stored.getDoctor().getId());
+			assertThrows(UnplannedFetchException.class, () -> stored.getPatient().getName());
+		});
+	}
+
+	// Listings, feed lookups and the availability check read columns only: one statement each
+	// and no entity hydrated
+	@Test
+	void readPathsProjectWithoutLoadingEntities() {
+		LocalDateTime from = day.atStartOfDay();
+		LocalDateTime until = day.plusDays(1).atStartOfDay();
+		statistics.clear();
+
+		AppointmentDTO doctorSide = appointmentRepository.findDtoPageByDoctorId(doctor.getId(), null, "plan",
+				from, until, from, 0L, Limit.of(10)).get(0);
+		assertEquals("Dr. Plan", doctorSide.getDoctorName());
+		assertEquals("Plan Patient", doctorSide.getPatientName());
+
+		AppointmentDTO patientSide = appointmentRepository.findDtoPageByPatientId(patient.getId(), 0, "plan",
+				from, until, from, 0L, Limit.of(10)).get(0);
+		assertEquals("Dr. Plan", patientSide.getDoctorName());
+		assertEquals(day.atTime(10, 0), patientSide.getEndTime());
+
+		assertEquals(appointment.getId(), appointmentRepository.findDtoByIdIn(List.of(appointment.getId())).get(0).getId());
+		assertEquals(List.of(new AppointmentRef(appointment.getId(), patient.getId(), doctor.getId())),
+				appointmentRepository.findRefsByIdIn(List.of(appointment.getId())));
+		assertEquals(List.of(day.atTime(9, 0)), appointmentRepository.findBookedTimes(doctor.getId(),
+				day.atStartOfDay(), day.atTime(23, 59)));
+
+		assertEquals(5, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void doctorLookupsLoadTheSlotListOnlyWhenAsked() {
+		Doctor withTimes = doctorRepository.findWithAvailableTimesById(doctor.getId()).orElseThrow();
+		assertEquals(List.of("09:00-10:00", "10:00-11:00"), withTimes.getAvailableTimes());
+		Doctor account = doctorRepository.findByEmail(doctor.getEmail());
+		assertFalse(Hibernate.isInitialized(account.getAvailableTimes()));
+	}
+
+	// The services swallow exceptions into status codes, so an unplanned fetch shows as a 0
+	@Test
+	void writePathsStayWithinTheirPlans() throws Exception {
+		Appointment moved = new Appointment();
+		moved.setId(appointment.getId());
+		moved.setDoctor(doctor);
+		moved.setPatient(patient);
+		moved.setAppointmentTime(day.atTime(10, 0));
+		assertEquals("1", appointmentService.updateAppointment(moved).getBody().get("result"));
+
+		Doctor edited = doctor("Dr. Plan", "09:00-10:00", "10:00-11:00");
+		edited.setId(doctor.getId());
+		edited.setEmail(doctor.getEmail());
+		edited.setAvailableTimes(List.of("14:00-15:00"));
+		assertEquals(1, doctorService.updateDoctor(edited));
+		assertEquals(List.of("14:00-15:00"),
+				doctorRepository.findWithAvailableTimesById(doctor.getId()).orElseThrow().getAvailableTimes());
+
+		assertEquals(1, doctorService.deleteDoctor(doctor.getId()));
+		assertTrue(appointmentRepository.findById(appointment.getId()).isEmpty());
+	}
+}
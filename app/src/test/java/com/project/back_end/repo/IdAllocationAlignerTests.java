@@ -0,0 +1,35 @@
+package com.project.back_end.repo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.project.back_end.TestFixtures.doctor;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Private database: the generators must not have handed out a block before the seed rows land
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ids;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class IdAllocationAlignerTests {
+
+	@Autowired
+	private JdbcTemplate jdbc;
+	@Autowired
+	private IdAllocationAligner aligner;
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Test
+	void generatedIdsSkipPastRowsInsertedWithPlainSql() {
+		jdbc.update("INSERT INTO doctor (email, name, password, phone, specialty) " +
+				"VALUES ('seeded@example.com', 'Dr. Seeded', 'pass12345', '555-101-2020', 'Cardiologist')");
+		jdbc.update("INSERT INTO doctor (id, email, name, password, phone, specialty) " +
+				"VALUES (500, 'legacy@example.com', 'Dr. Legacy', 'pass12345', '555-101-2020', 'Cardiologist')");
+
+		aligner.align();
+
+		assertTrue(doctorRepository.save(doctor("Dr. Generated", "09:00-10:00")).getId() > 500);
+	}
+}
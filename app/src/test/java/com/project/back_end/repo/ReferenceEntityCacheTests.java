@@ -0,0 +1,77 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.TestFixtures;
+import com.project.back_end.models.Doctor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: entities reach the second-level cache only once their transaction commits
+@SpringBootTest
+@ActiveProfiles("test")
+class ReferenceEntityCacheTests {
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Statistics statistics;
+	private Doctor doctor;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		doctor = doctorRepository.save(doctor("cached." + System.nanoTime() + "@example.com"));
+	}
+
+	@Test
+	void repeatedLookupsAreServedWithoutStatements() {
+		doctorRepository.findByEmail(doctor.getEmail());
+		statistics.clear();
+
+		Doctor byEmail = doctorRepository.findByEmail(doctor.getEmail());
+		Doctor byId = doctorRepository.findById(doctor.getId()).orElseThrow();
+
+		// Account lookups leave the slot list alone
+		assertFalse(Hibernate.isInitialized(byEmail.getAvailableTimes()));
+		assertEquals(doctor.getEmail(), byId.getEmail());
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertEquals(1, statistics.getQueryCacheHitCount());
+		assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+	}
+
+	@Test
+	void writesInvalidateCachedEntitiesAndLookups() {
+		doctorRepository.findByEmail(doctor.getEmail());
+		transactionTemplate.executeWithoutResult(status ->
+				doctorRepository.findById(doctor.getId()).orElseThrow().setPhone("555-999-9999"));
+		assertEquals("555-999-9999", doctorRepository.findByEmail(doctor.getEmail()).getPhone());
+
+		String email = "later." + System.nanoTime() + "@example.com";
+		assertNull(doctorRepository.findByEmail(email));
+		doctorRepository.save(doctor(email));
+		assertNotNull(doctorRepository.findByEmail(email));
+	}
+
+	private static Doctor doctor(String email) {
+		Doctor doctor = TestFixtures.doctor("Dr. Cached", "09:00-10:00");
+		doctor.setEmail(email);
+		return doctor;
+	}
+}
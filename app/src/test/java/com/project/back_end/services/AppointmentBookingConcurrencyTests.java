@@ -0,0 +1,182 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.project.back_end.TestFixtures.doctor;
+import static com.project.back_end.TestFixtures.patient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentBookingConcurrencyTests {
+
+	private static final int BOOKINGS = 2000;
+
+	@Autowired
+	private AppointmentService appointmentService;
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private PatientRepository patientRepository;
+	@Autowired
+	private DoctorAvailabilityIndex availabilityIndex;
+
+	private Doctor doctor;
+	private Patient patient;
+
+	@BeforeEach
+	void setUp() {
+		appointmentRepository.deleteAll();
+		availabilityIndex.clear();
+
+		doctor = doctorRepository.save(doctor("Dr. Race Condition", "09:00-10:00", "10:00-11:00"));
+		patient = patientRepository.save(patient("Patient Zero"));
+	}
+
+	@Test
+	void exactlyOneParallelBookingWinsTheSlot() throws Exception {
+		LocalDateTime slot = LocalDate.now().plusDays(3).atTime(9, 0);
+
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < BOOKINGS; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					return appointmentService.bookAppointment(newAppointment(slot));
+				}));
+			}
+			start.countDown();
+
+			int won = 0;
+			int conflicts = 0;
+			for (Future<Integer> result : results) {
+				int code = result.get();
+				if (code == 1) {
+					won++;
+				} else if (code == 0) {
+					conflicts++;
+				}
+			}
+
+			assertEquals(1, won);
+			assertEquals(BOOKINGS - 1, conflicts);
+			assertEquals(1, appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(
+					doctor.getId(), slot, slot).size());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void unknownDoctorIsReported() throws Exception {
+		Doctor missing = new Doctor();
+		missing.setId(Long.MAX_VALUE);
+		Appointment appointment = newAppointment(LocalDate.now().plusDays(3).atTime(10, 0));
+		appointment.setDoctor(missing);
+
+		assertEquals(-1, appointmentService.bookAppointment(appointment));
+	}
+
+	@Test
+	void rescheduleRacesBookingsForTheSameSlot() throws Exception {
+		LocalDate day = LocalDate.now().plusDays(3);
+		Appointment existing = newAppointment(day.atTime(9, 0));
+		assertEquals(1, appointmentService.bookAppointment(existing));
+		LocalDateTime target = day.atTime(10, 0);
+
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			Future<HttpStatusCode> moved = pool.submit(() -> {
+				start.await();
+				return appointmentService.updateAppointment(moved(existing, target)).getStatusCode();
+			});
+			List<Future<Integer>> bookings = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				bookings.add(pool.submit(() -> {
+					start.await();
+					return appointmentService.bookAppointment(newAppointment(target));
+				}));
+			}
+			start.countDown();
+
+			int won = moved.get() == HttpStatus.OK ? 1 : 0;
+			if (won == 0) {
+				assertEquals(HttpStatus.CONFLICT, moved.get());
+			}
+			for (Future<Integer> booking : bookings) {
+				won += booking.get() == 1 ? 1 : 0;
+			}
+			assertEquals(1, won);
+			assertEquals(1, appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(
+					doctor.getId(), target, target).size());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void rescheduleFollowsTheBookingRules() throws Exception {
+		LocalDate day = LocalDate.now().plusDays(3);
+		Appointment first = newAppointment(day.atTime(9, 0));
+		Appointment second = newAppointment(day.atTime(10, 0));
+		assertEquals(1, appointmentService.bookAppointment(first));
+		assertEquals(1, appointmentService.bookAppointment(second));
+
+		assertEquals(HttpStatus.CONFLICT,
+				appointmentService.updateAppointment(moved(second, day.atTime(9, 0))).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST,
+				appointmentService.updateAppointment(moved(second, day.atTime(12, 0))).getStatusCode());
+		assertEquals(day.atTime(10, 0), appointmentRepository.findById(second.getId()).orElseThrow().getAppointmentTime());
+
+		// Moving away frees the old slot for the next booking
+		assertEquals(HttpStatus.OK,
+				appointmentService.updateAppointment(moved(first, day.plusDays(1).atTime(9, 0))).getStatusCode());
+		assertEquals(1, appointmentService.bookAppointment(newAppointment(day.atTime(9, 0))));
+	}
+
+	private Appointment moved(Appointment appointment, LocalDateTime time) {
+		Appointment moved = newAppointment(time);
+		moved.setId(appointment.getId());
+		return moved;
+	}
+
+	private Appointment newAppointment(LocalDateTime time) {
+		Doctor doctorRef = new Doctor();
+		doctorRef.setId(doctor.getId());
+		Patient patientRef = new Patient();
+		patientRef.setId(patient.getId());
+
+		Appointment appointment = new Appointment();
+		appointment.setDoctor(doctorRef);
+		appointment.setPatient(patientRef);
+		appointment.setAppointmentTime(time);
+		appointment.setStatus(0);
+		return appointment;
+	}
+}
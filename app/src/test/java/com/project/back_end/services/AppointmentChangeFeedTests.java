@@ -0,0 +1,191 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentRef;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.project.back_end.TestFixtures.appointment;
+import static com.project.back_end.TestFixtures.doctor;
+import static com.project.back_end.TestFixtures.patient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class AppointmentChangeFeedTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private AppointmentService appointmentService;
+	@Autowired
+	private AppointmentChangeFeed changeFeed;
+	@Autowired
+	private TokenService tokenService;
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private PatientRepository patientRepository;
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Test
+	void dashboardReceivesBookingAndCancellationDeltas() throws Exception {
+		Doctor doctor = doctorRepository.save(doctor("Dr. Live Feed", "09:00-10:00"));
+		Patient patient = patientRepository.save(patient("Feed Patient"));
+		String token = tokenService.generateToken(doctor.getEmail());
+
+		HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/appointments/stream/" + token)).build(),
+				HttpResponse.BodyHandlers.ofLines());
+		assertEquals(200, response.statusCode());
+		Iterator<String> events = response.body().filter(line -> line.startsWith("data:")).iterator();
+		awaitSubscribers(1);
+
+		Appointment appointment = appointment(doctor, patient, LocalDate.now().plusDays(2).atTime(9, 0), 0);
+		assertEquals(1, appointmentService.bookAppointment(appointment));
+		String booked = next(events);
+		assertTrue(booked.contains("\"type\":\"upsert\""), booked);
+		assertTrue(booked.contains("\"patientName\":\"Feed Patient\""), booked);
+
+		appointmentService.cancelAppointment(appointment.getId(), token);
+		String cancelled = next(events);
+		assertTrue(cancelled.contains("\"type\":\"removed\""), cancelled);
+		assertTrue(cancelled.contains("\"appointmentId\":" + appointment.getId()), cancelled);
+
+		response.body().close();
+	}
+
+	@Test
+	void invalidTokenIsRejected() throws Exception {
+		HttpResponse<Void> response = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/appointments/stream/bogus")).build(),
+				HttpResponse.BodyHandlers.discarding());
+		assertEquals(401, response.statusCode());
+	}
+
+	// The feed closes with the context, before graceful shutdown would wait on open streams
+	@Test
+	void closingTheContextEndsOpenStreams() {
+		AppointmentChangeFeed feed = new AppointmentChangeFeed(appointmentRepository);
+		feed.subscribe(1L);
+		assertEquals(1, feed.subscriberCount());
+
+		feed.shutdown();
+		assertEquals(0, feed.subscriberCount());
+		feed.subscribe(1L);
+		assertEquals(0, feed.subscriberCount());
+		feed.changed(1L, 1L);
+	}
+
+	// A client that stops reading is dropped once its queue fills, while the doctor's other
+	// dashboards keep receiving every change
+	@Test
+	void stalledSubscriberIsDroppedWithoutDelayingOthers() throws Exception {
+		AppointmentChangeFeed feed = new AppointmentChangeFeed(appointmentRepository);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter stalled = new RecordingEmitter(release);
+		RecordingEmitter live = new RecordingEmitter(null);
+		feed.subscribe(1L, stalled);
+		feed.subscribe(1L, live);
+
+		assertTrue(live.received.tryAcquire(5, TimeUnit.SECONDS));
+		for (long id = 1; id <= AppointmentChangeFeed.QUEUE_CAPACITY + 1; id++) {
+			feed.removed(1L, id);
+			assertTrue(live.received.tryAcquire(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, feed.subscriberCount());
+		assertTrue(stalled.sent.isEmpty());
+
+		release.countDown();
+		assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+		feed.shutdown();
+	}
+
+	@Test
+	void changesAreOnlyLoadedForWatchedDoctors() {
+		AppointmentRepository repository = mock(AppointmentRepository.class);
+		AppointmentChangeFeed feed = new AppointmentChangeFeed(repository);
+		feed.subscribe(1L, new RecordingEmitter(null));
+
+		feed.changed(2L, 20L);
+		feed.changed(List.of(new AppointmentRef(21L, null, 2L), new AppointmentRef(10L, null, 1L)));
+		verify(repository, timeout(5_000)).findDtoByIdIn(List.of(10L));
+		verifyNoMoreInteractions(repository);
+		feed.shutdown();
+	}
+
+	private void awaitSubscribers(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (changeFeed.subscriberCount() < count && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals(count, changeFeed.subscriberCount());
+	}
+
+	private static final class RecordingEmitter extends SseEmitter {
+		private final CountDownLatch release;
+		private final List<SseEventBuilder> sent = new CopyOnWriteArrayList<>();
+		private final Semaphore received = new Semaphore(0);
+		private final CountDownLatch completed = new CountDownLatch(1);
+
+		private RecordingEmitter(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void send(SseEventBuilder event) throws IOException {
+			if (release != null) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException(e);
+				}
+			}
+			sent.add(event);
+			received.release();
+		}
+
+		@Override
+		public void complete() {
+			completed.countDown();
+			super.complete();
+		}
+	}
+
+	private static String next(Iterator<String> events) throws Exception {
+		return CompletableFuture.supplyAsync(events::next).get(10, TimeUnit.SECONDS);
+	}
+}
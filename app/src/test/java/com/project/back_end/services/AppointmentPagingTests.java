@@ -0,0 +1,76 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+
+import static com.project.back_end.TestFixtures.appointment;
+import static com.project.back_end.TestFixtures.doctor;
+import static com.project.back_end.TestFixtures.patient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class AppointmentPagingTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private TokenService tokenService;
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private PatientRepository patientRepository;
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void dayListingIsFollowedPageByPageAndBadCursorsAreRejected() throws Exception {
+		Doctor doctor = doctorRepository.save(doctor("Dr. Paged", "09:00-10:00", "10:00-11:00", "11:00-12:00"));
+		Patient patient = patientRepository.save(patient("Paged Patient"));
+		LocalDate day = LocalDate.now().plusDays(6);
+		for (int hour = 9; hour < 12; hour++) {
+			appointmentRepository.save(appointment(doctor, patient, day.atTime(hour, 0), 0));
+		}
+		String listing = "/appointments/" + day + "/null/" + tokenService.generateToken(doctor.getEmail());
+
+		JsonNode first = objectMapper.readTree(get(listing + "?limit=2").body());
+		assertEquals(2, first.get("appointments").size());
+		String cursor = first.get("nextCursor").asText();
+		JsonNode last = objectMapper.readTree(get(listing + "?limit=2&cursor=" + cursor).body());
+		assertEquals(1, last.get("appointments").size());
+		assertTrue(last.get("nextCursor").isNull());
+
+		HttpResponse<String> doctorSide = get(listing + "?cursor=not-a-cursor");
+		assertEquals(400, doctorSide.statusCode());
+		assertTrue(doctorSide.body().contains("Invalid cursor"), doctorSide.body());
+		String patientToken = tokenService.generateToken(patient.getEmail());
+		assertEquals(400, get("/patient/" + patient.getId() + "/" + patientToken + "?cursor=not-a-cursor").statusCode());
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,96 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.BulkImport;
+import com.project.back_end.DTO.BulkImport.ImportedAppointment;
+import com.project.back_end.TestFixtures;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkImportServiceTests {
+
+	private static final LocalDateTime NINE = LocalDateTime.now().plusDays(2).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+	@Autowired
+	private BulkImportService bulkImportService;
+	@Autowired
+	private PasswordVerifier passwordVerifier;
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private PatientRepository patientRepository;
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Test
+	void importsAccountsAndAppointmentsInOneGo() {
+		String suffix = System.nanoTime() + "@example.com";
+		Patient stored = patientRepository.save(patient("stored." + suffix));
+		String migratedHash = passwordVerifier.hash("migrated1");
+		Doctor fresh = doctor("fresh." + suffix, "secret123");
+		Doctor migrated = doctor("migrated." + suffix, migratedHash);
+		BulkImport data = new BulkImport(List.of(fresh, migrated), List.of(patient("new." + suffix)), List.of(
+				new ImportedAppointment(fresh.getEmail(), stored.getEmail(), NINE, null),
+				new ImportedAppointment(fresh.getEmail(), "new." + suffix, NINE.plusHours(1), 1),
+				new ImportedAppointment(migrated.getEmail(), stored.getEmail(), NINE, null)));
+
+		ResponseEntity<Map<String, Object>> response = bulkImportService.importAll(data);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(Map.of("doctors", 2, "patients", 1, "appointments", 3), response.getBody());
+		Doctor saved = doctorRepository.findByEmail(fresh.getEmail());
+		assertTrue(passwordVerifier.isHashed(saved.getPassword()));
+		assertEquals(migratedHash, doctorRepository.findByEmail(migrated.getEmail()).getPassword());
+		assertEquals(2, appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(
+				saved.getId(), NINE.minusMinutes(1), NINE.plusHours(2)).size());
+		assertNotNull(patientRepository.findByEmail("new." + suffix));
+	}
+
+	@Test
+	void rejectsTheWholeImportOnAnyInvalidEntry() {
+		String suffix = System.nanoTime() + "@example.com";
+		Patient stored = patientRepository.save(patient("taken." + suffix));
+		BulkImport data = new BulkImport(
+				List.of(doctor("valid." + suffix, "secret123"), doctor("short." + suffix, "abc")),
+				List.of(patient(stored.getEmail())),
+				List.of(new ImportedAppointment("nobody." + suffix, stored.getEmail(), NINE, 0)));
+
+		ResponseEntity<Map<String, Object>> response = bulkImportService.importAll(data);
+
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+		assertEquals(3, response.getBody().get("errorCount"));
+		assertNull(doctorRepository.findByEmail("valid." + suffix));
+	}
+
+	private static Doctor doctor(String email, String password) {
+		Doctor doctor = TestFixtures.doctor("Dr. Imported", "09:00-10:00", "10:00-11:00");
+		doctor.setEmail(email);
+		doctor.setPassword(password);
+		return doctor;
+	}
+
+	private static Patient patient(String email) {
+		Patient patient = TestFixtures.patient("Imported Patient");
+		patient.setEmail(email);
+		return patient;
+	}
+}
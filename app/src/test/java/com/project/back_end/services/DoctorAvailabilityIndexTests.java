@@ -0,0 +1,64 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DoctorAvailabilityIndexTests {
+
+	private static final SlotBitmap SLOTS = SlotBitmap.parse(List.of("09:00-10:00", "10:00-11:00", "14:00-15:00"));
+	private static final LocalDate DAY = LocalDate.of(2030, 1, 15);
+
+	@Test
+	void coldDayIsNotServed() {
+		DoctorAvailabilityIndex index = new DoctorAvailabilityIndex();
+		assertNull(index.getAvailableSlots(1L, DAY));
+	}
+
+	@Test
+	void warmDayTracksBookingsInPlace() {
+		DoctorAvailabilityIndex index = new DoctorAvailabilityIndex();
+		List<String> free = index.warm(1L, DAY, SLOTS, List.of(DAY.atTime(10, 0)), index.currentVersion());
+		assertEquals(List.of("09:00-10:00", "14:00-15:00"), free);
+
+		index.markBooked(1L, DAY.atTime(9, 0));
+		assertEquals(List.of("14:00-15:00"), index.getAvailableSlots(1L, DAY));
+
+		index.markFree(1L, DAY.atTime(10, 0));
+		assertEquals(List.of("10:00-11:00", "14:00-15:00"), index.getAvailableSlots(1L, DAY));
+	}
+
+	@Test
+	void staleWarmUpIsNotInstalled() {
+		DoctorAvailabilityIndex index = new DoctorAvailabilityIndex();
+		long observed = index.currentVersion();
+		index.markBooked(1L, DAY.atTime(9, 0));
+
+		index.warm(1L, DAY, SLOTS, List.of(), observed);
+		assertNull(index.getAvailableSlots(1L, DAY));
+	}
+
+	@Test
+	void fullIndexDropsTheLongestCachedDays() {
+		DoctorAvailabilityIndex index = new DoctorAvailabilityIndex();
+		for (long doctorId = 0; doctorId <= DoctorAvailabilityIndex.MAX_CACHED_DAYS; doctorId++) {
+			index.warm(doctorId, DAY, SLOTS, List.of(), index.currentVersion());
+		}
+		assertNull(index.getAvailableSlots(0L, DAY));
+		assertNotNull(index.getAvailableSlots(1L, DAY));
+		assertNotNull(index.getAvailableSlots((long) DoctorAvailabilityIndex.MAX_CACHED_DAYS, DAY));
+	}
+
+	@Test
+	void evictDoctorDropsAllDays() {
+		DoctorAvailabilityIndex index = new DoctorAvailabilityIndex();
+		index.warm(1L, DAY, SLOTS, List.of(), index.currentVersion());
+		index.evictDoctor(1L);
+		assertNull(index.getAvailableSlots(1L, DAY));
+	}
+}
@@ -0,0 +1,48 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DoctorDirectoryTests {
+
+	private final DoctorDirectory directory = DoctorDirectory.of(List.of(
+			doctor(2L, "Dr. Mark Johnson", "Neurologist", "14:00-15:00"),
+			doctor(1L, "Dr. Emily Adams", "Cardiologist", "09:00-10:00", "14:00-15:00"),
+			doctor(3L, "Dr. Emma Clark", "Cardiologist", "10:00-11:00")));
+
+	@Test
+	void noCriteriaReturnsEveryoneInIdOrder() {
+		assertEquals(List.of(1L, 2L, 3L), ids(directory.filter(null, "", null)));
+	}
+
+	@Test
+	void nameIsCaseInsensitiveContains() {
+		assertEquals(List.of(1L, 3L), ids(directory.filter("EM", null, null)));
+		assertEquals(List.of(1L), ids(directory.filter("ily ad", null, null)));
+		assertEquals(List.of(), ids(directory.filter("zzz", null, null)));
+	}
+
+	@Test
+	void criteriaAreCombined() {
+		assertEquals(List.of(1L, 3L), ids(directory.filter(null, "cardiologist", null)));
+		assertEquals(List.of(1L, 2L), ids(directory.filter(null, null, "PM")));
+		assertEquals(List.of(1L), ids(directory.filter("dr", "CARDIOLOGIST", "pm")));
+	}
+
+	private static List<Long> ids(List<Doctor> doctors) {
+		return doctors.stream().map(Doctor::getId).toList();
+	}
+
+	private static Doctor doctor(Long id, String name, String specialty, String... slots) {
+		Doctor doctor = new Doctor();
+		doctor.setId(id);
+		doctor.setName(name);
+		doctor.setSpecialty(specialty);
+		doctor.setAvailableTimes(List.of(slots));
+		return doctor;
+	}
+}
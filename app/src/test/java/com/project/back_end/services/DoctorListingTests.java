@@ -0,0 +1,124 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static com.project.back_end.TestFixtures.doctor;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class DoctorListingTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private DoctorService doctorService;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void listingIsServedGzippedWithStrongEtagsAndRevalidated() throws Exception {
+		assertEquals(1, doctorService.saveDoctor(doctor("Dr. Listed", "09:00-10:00")));
+
+		HttpResponse<byte[]> plain = get(null, null);
+		HttpResponse<byte[]> gzipped = get("gzip, deflate", null);
+
+		assertEquals(200, plain.statusCode());
+		assertEquals(200, gzipped.statusCode());
+		assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElseThrow());
+		assertArrayEquals(plain.body(), new GZIPInputStream(new ByteArrayInputStream(gzipped.body())).readAllBytes());
+		String etag = plain.headers().firstValue("ETag").orElseThrow();
+		String gzipEtag = gzipped.headers().firstValue("ETag").orElseThrow();
+		assertTrue(etag.startsWith("\"") && !etag.startsWith("W/"), etag);
+		assertNotEquals(etag, gzipEtag);
+		assertTrue(names(plain.body()).contains("Dr. Listed"));
+		assertFalse(new String(plain.body()).contains("\"password\""));
+
+		HttpResponse<byte[]> revalidated = get("gzip", gzipEtag);
+		assertEquals(304, revalidated.statusCode());
+		assertEquals(0, revalidated.body().length);
+		assertEquals(304, get(null, etag).statusCode());
+
+		// A new doctor changes the listing and its tag
+		assertEquals(1, doctorService.saveDoctor(doctor("Dr. Added Later", "09:00-10:00")));
+		HttpResponse<byte[]> changed = get(null, etag);
+		assertEquals(200, changed.statusCode());
+		assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+		assertTrue(names(changed.body()).contains("Dr. Added Later"));
+	}
+
+	// Codings are matched as tokens with their weights, and every variant names what it varies by
+	@Test
+	void gzipFollowsTheAcceptEncodingWeights() throws Exception {
+		assertGzip(true, "gzip");
+		assertGzip(true, "deflate, x-gzip;q=0.5");
+		assertGzip(true, "br;q=1.0, *;q=0.1");
+		assertGzip(false, null);
+		assertGzip(false, "gzip;q=0");
+		assertGzip(false, "gzip ; q=0.000, deflate");
+		assertGzip(false, "*;q=1, gzip;q=0");
+		assertGzip(false, "not-gzip, gzipper");
+
+		String etag = get(null, null).headers().firstValue("ETag").orElseThrow();
+		HttpResponse<byte[]> revalidated = get("gzip;q=0", etag);
+		assertEquals(304, revalidated.statusCode());
+		assertTrue(variesByAcceptEncoding(revalidated));
+	}
+
+	@Test
+	void unchangedDirectoryReusesTheSerializedListing() {
+		assertSame(doctorService.getDoctorListing(), doctorService.getDoctorListing());
+	}
+
+	private void assertGzip(boolean gzip, String acceptEncoding) throws Exception {
+		HttpResponse<byte[]> response = get(acceptEncoding, null);
+		assertEquals(200, response.statusCode());
+		assertEquals(gzip, response.headers().firstValue("Content-Encoding").isPresent(), acceptEncoding);
+		assertTrue(variesByAcceptEncoding(response), acceptEncoding);
+	}
+
+	private static boolean variesByAcceptEncoding(HttpResponse<?> response) {
+		return response.headers().allValues("Vary").stream()
+				.flatMap(vary -> Arrays.stream(vary.split(",")))
+				.anyMatch(header -> header.trim().equalsIgnoreCase("Accept-Encoding"));
+	}
+
+	private HttpResponse<byte[]> get(String acceptEncoding, String ifNoneMatch) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/doctor"));
+		if (acceptEncoding != null) {
+			request.header("Accept-Encoding", acceptEncoding);
+		}
+		if (ifNoneMatch != null) {
+			request.header("If-None-Match", ifNoneMatch);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private List<String> names(byte[] body) throws Exception {
+		JsonNode doctors = objectMapper.readTree(body).get("doctors");
+		return doctors.findValuesAsText("name");
+	}
+}
@@ -0,0 +1,109 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.DoctorSchedule;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.ScheduleException;
+import com.project.back_end.models.ScheduleRule;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static com.project.back_end.TestFixtures.appointment;
+import static com.project.back_end.TestFixtures.doctor;
+import static com.project.back_end.TestFixtures.patient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DoctorScheduleServiceTests {
+
+	@Autowired
+	private DoctorScheduleService scheduleService;
+	@Autowired
+	private DoctorService doctorService;
+	@Autowired
+	private AppointmentService appointmentService;
+	@Autowired
+	private TokenService tokenService;
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private PatientRepository patientRepository;
+
+	private Doctor doctor;
+	private String token;
+	private LocalDate nextMonday;
+
+	@BeforeEach
+	void setUp() {
+		doctor = doctorRepository.save(doctor("Dr. Template", "09:00-10:00"));
+		token = tokenService.generateToken(doctor.getEmail());
+		nextMonday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+	}
+
+	@Test
+	void savedTemplateDrivesAvailabilityAndBooking() {
+		// Legacy available times apply until a template is saved
+		assertEquals(List.of("09:00-10:00"), doctorService.getDoctorAvailability(doctor.getId(), nextMonday));
+
+		ScheduleException holiday = new ScheduleException();
+		holiday.setDate(nextMonday.plusWeeks(1));
+		DoctorSchedule schedule = new DoctorSchedule(30,
+				List.of(rule(DayOfWeek.MONDAY, "14:00", "15:30")), List.of(holiday));
+		assertEquals(HttpStatus.OK, scheduleService.saveSchedule(token, schedule).getStatusCode());
+
+		assertEquals(List.of("14:00-14:30", "14:30-15:00", "15:00-15:30"),
+				doctorService.getDoctorAvailability(doctor.getId(), nextMonday));
+		assertTrue(doctorService.getDoctorAvailability(doctor.getId(), nextMonday.plusDays(1)).isEmpty());
+		assertTrue(doctorService.getDoctorAvailability(doctor.getId(), nextMonday.plusWeeks(1)).isEmpty());
+
+		assertEquals(-2, book(nextMonday.atTime(9, 0)));
+		assertEquals(1, book(nextMonday.atTime(14, 30)));
+		assertEquals(List.of("14:00-14:30", "15:00-15:30"),
+				doctorService.getDoctorAvailability(doctor.getId(), nextMonday));
+	}
+
+	@Test
+	void misalignedTemplatesAreRejected() {
+		DoctorSchedule badLength = new DoctorSchedule(20, List.of(), List.of());
+		DoctorSchedule badRule = new DoctorSchedule(30,
+				List.of(rule(DayOfWeek.MONDAY, "09:10", "11:00")), List.of());
+
+		assertEquals(HttpStatus.BAD_REQUEST, scheduleService.saveSchedule(token, badLength).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, scheduleService.saveSchedule(token, badRule).getStatusCode());
+		assertEquals(HttpStatus.UNAUTHORIZED, scheduleService.saveSchedule("bogus", badLength).getStatusCode());
+	}
+
+	private int book(LocalDateTime time) {
+		Patient patient = patientRepository.save(patient("Template Patient"));
+		Appointment appointment = appointment(doctor, patient, time, 0);
+		try {
+			return appointmentService.bookAppointment(appointment);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static ScheduleRule rule(DayOfWeek day, String start, String end) {
+		ScheduleRule rule = new ScheduleRule();
+		rule.setDayOfWeek(day);
+		rule.setStartTime(LocalTime.parse(start));
+		rule.setEndTime(LocalTime.parse(end));
+		return rule;
+	}
+}
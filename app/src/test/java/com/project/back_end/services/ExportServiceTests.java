@@ -0,0 +1,100 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.PrescriptionView;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTests {
+
+	private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 15, 9, 0);
+
+	private AppointmentRepository appointmentRepository;
+	private MongoTemplate mongoTemplate;
+	private ExportService exportService;
+
+	@BeforeEach
+	void setUp() {
+		appointmentRepository = mock(AppointmentRepository.class);
+		mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.getCollectionName(Prescription.class)).thenReturn("prescription");
+		when(mongoTemplate.stream(any(Query.class), eq(PrescriptionView.class), eq("prescription")))
+				.thenAnswer(invocation -> Stream.of(
+						new PrescriptionView("John Smith", 1L, "Paracetamol", "500mg", "Take with water, twice \"daily\"")));
+		exportService = new ExportService(appointmentRepository, mongoTemplate, new ObjectMapper().findAndRegisterModules());
+	}
+
+	@Test
+	void writesOneJsonLinePerAppointmentWithItsPrescriptions() {
+		when(appointmentRepository.findDtoChunkBetween(any(), any(), any(), any(), any()))
+				.thenReturn(List.of(appointment(1L), appointment(2L)));
+
+		String[] lines = export(ExportService.Format.NDJSON).split("\n");
+
+		assertEquals(2, lines.length);
+		assertTrue(lines[0].startsWith("{\"id\":1,"));
+		assertTrue(lines[0].contains("\"medication\":\"Paracetamol\""));
+		assertTrue(lines[1].endsWith("\"prescriptions\":[]}"));
+	}
+
+	@Test
+	void writesCsvWithQuotedFields() {
+		when(appointmentRepository.findDtoChunkBetween(any(), any(), any(), any(), any()))
+				.thenReturn(List.of(appointment(1L), appointment(2L)));
+
+		String[] lines = export(ExportService.Format.CSV).split("\n");
+
+		assertEquals(3, lines.length);
+		assertEquals("1,2030-01-15T09:00,0,7,Dr. Emily Adams,3,John Smith,john@example.com,888-222-2222,"
+				+ "Paracetamol,500mg,\"Take with water, twice \"\"daily\"\"\"", lines[1]);
+		assertEquals("2,2030-01-15T09:00,0,7,Dr. Emily Adams,3,John Smith,john@example.com,888-222-2222,,,", lines[2]);
+	}
+
+	@Test
+	void readsAndLooksUpPrescriptionsOncePerChunk() {
+		List<AppointmentDTO> full = IntStream.rangeClosed(1, ExportService.CHUNK_SIZE)
+				.mapToObj(id -> appointment((long) id)).toList();
+		long lastId = ExportService.CHUNK_SIZE;
+		when(appointmentRepository.findDtoChunkBetween(any(), any(), any(), any(), any()))
+				.thenReturn(full, List.of(appointment(lastId + 1)));
+
+		String[] lines = export(ExportService.Format.NDJSON).split("\n");
+
+		assertEquals(ExportService.CHUNK_SIZE + 1, lines.length);
+		// The second chunk seeks past the last row of the first
+		verify(appointmentRepository).findDtoChunkBetween(any(), any(), eq(NINE), eq(lastId), any());
+		verify(mongoTemplate, times(2)).stream(any(Query.class), eq(PrescriptionView.class), eq("prescription"));
+	}
+
+	private String export(ExportService.Format format) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportAppointments(null, null, format, out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private static AppointmentDTO appointment(Long id) {
+		return new AppointmentDTO(id, 7L, "Dr. Emily Adams", 3L, "John Smith", "john@example.com",
+				"888-222-2222", "1 Main St", NINE, 0);
+	}
+}
@@ -0,0 +1,85 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.Login;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoginMigrationTests {
+
+	@Autowired
+	private Services services;
+	@Autowired
+	private PatientService patientService;
+	@Autowired
+	private PatientRepository patientRepository;
+	@Autowired
+	private PasswordVerifier passwordVerifier;
+
+	private String email;
+
+	@BeforeEach
+	void setUp() {
+		email = "login." + System.nanoTime() + "@example.com";
+	}
+
+	@Test
+	void plainTextPasswordIsRehashedOnFirstLogin() {
+		Patient patient = newPatient();
+		patient.setPassword("legacyPass1");
+		patientRepository.save(patient);
+
+		ResponseEntity<Map<String, String>> response = services.validatePatientLogin(login("legacyPass1")).join();
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertNotNull(response.getBody().get("token"));
+		String stored = patientRepository.findByEmail(email).getPassword();
+		assertNotEquals("legacyPass1", stored);
+		assertTrue(passwordVerifier.isHashed(stored));
+
+		// The migrated row keeps accepting the same password
+		assertEquals(HttpStatus.OK, services.validatePatientLogin(login("legacyPass1")).join().getStatusCode());
+	}
+
+	@Test
+	void newPatientsAreStoredHashed() {
+		Patient patient = newPatient();
+		patient.setPassword("freshPass1");
+		assertEquals(1, patientService.createPatient(patient));
+
+		assertTrue(passwordVerifier.isHashed(patientRepository.findByEmail(email).getPassword()));
+		assertEquals(HttpStatus.OK, services.validatePatientLogin(login("freshPass1")).join().getStatusCode());
+		assertEquals(HttpStatus.UNAUTHORIZED, services.validatePatientLogin(login("freshPass2")).join().getStatusCode());
+	}
+
+	private Patient newPatient() {
+		Patient patient = new Patient();
+		patient.setName("Login Patient");
+		patient.setEmail(email);
+		patient.setPhone("555-222-3333");
+		patient.setAddress("2 Test Street");
+		return patient;
+	}
+
+	private Login login(String password) {
+		Login login = new Login();
+		login.setEmail(email);
+		login.setPassword(password);
+		return login;
+	}
+}
@@ -0,0 +1,121 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.OutboxEventRepository;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	private OutboxEventRepository outboxEventRepository;
+	private BulkOperations bulkOperations;
+	private OutboxRelay relay;
+
+	@BeforeEach
+	void setUp() {
+		outboxEventRepository = mock(OutboxEventRepository.class);
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		bulkOperations = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class)).thenReturn(bulkOperations);
+		relay = new OutboxRelay(outboxEventRepository, mongoTemplate, objectMapper,
+				mock(PlatformTransactionManager.class));
+	}
+
+	@Test
+	void appliesBatchAsIdempotentUpsertsAndMarksProcessed() throws Exception {
+		OutboxEvent first = event("a1", 51L);
+		OutboxEvent second = event("a2", 52L);
+		when(outboxEventRepository.claimDue(any(), any())).thenReturn(List.of(first, second));
+
+		assertEquals(2, relay.relayBatch());
+
+		verify(bulkOperations, times(2)).replaceOne(any(), any(Prescription.class), any());
+		verify(bulkOperations).execute();
+		verify(outboxEventRepository).saveAll(List.of(first, second));
+		assertNotNull(first.getProcessedAt());
+		assertNotNull(second.getProcessedAt());
+	}
+
+	@Test
+	void failedWritesAreRetriedWithBackoff() throws Exception {
+		OutboxEvent ok = event("a1", 51L);
+		OutboxEvent failing = event("a2", 52L);
+		OutboxEvent unreadable = new OutboxEvent(OutboxEvent.PRESCRIPTION_SAVED, "a3", "{not json");
+		when(outboxEventRepository.claimDue(any(), any())).thenReturn(List.of(ok, unreadable, failing));
+		// Bulk indexes count only the events that made it into the batch: "failing" is the second
+		when(bulkOperations.execute()).thenThrow(new BulkOperationException("bulk write failed",
+				new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+						List.of(new BulkWriteError(11000, "write failed", new BsonDocument(), 1)), null,
+						new ServerAddress(), Set.of())));
+
+		LocalDateTime before = LocalDateTime.now();
+		relay.relayBatch();
+
+		assertNotNull(ok.getProcessedAt());
+		for (OutboxEvent event : List.of(failing, unreadable)) {
+			assertNull(event.getProcessedAt());
+			assertEquals(1, event.getAttempts());
+			assertNotNull(event.getLastError());
+			assertTrue(event.getNextAttemptAt().isAfter(before));
+		}
+		verify(outboxEventRepository).saveAll(eq(List.of(ok, unreadable, failing)));
+	}
+
+	@Test
+	void eventsThatKeepFailingAreParked() {
+		OutboxEvent poison = new OutboxEvent(OutboxEvent.PRESCRIPTION_SAVED, "a4", "{not json");
+		poison.setAttempts(OutboxRelay.MAX_ATTEMPTS - 1);
+		LocalDateTime retryAt = poison.getNextAttemptAt();
+		when(outboxEventRepository.claimDue(any(), any())).thenReturn(List.of(poison));
+
+		relay.relayBatch();
+
+		assertEquals(OutboxRelay.MAX_ATTEMPTS, poison.getAttempts());
+		assertNotNull(poison.getParkedAt());
+		assertNull(poison.getProcessedAt());
+		assertEquals(retryAt, poison.getNextAttemptAt());
+		verify(outboxEventRepository).saveAll(List.of(poison));
+	}
+
+	@Test
+	void backoffDoublesUpToTheCap() {
+		assertEquals(Duration.ofSeconds(1), OutboxRelay.backoff(1));
+		assertEquals(Duration.ofSeconds(8), OutboxRelay.backoff(4));
+		assertEquals(OutboxRelay.MAX_BACKOFF, OutboxRelay.backoff(50));
+	}
+
+	private OutboxEvent event(String id, Long appointmentId) throws Exception {
+		Prescription prescription = new Prescription("John Smith", appointmentId, "Paracetamol", "500mg");
+		prescription.setId(id);
+		return new OutboxEvent(OutboxEvent.PRESCRIPTION_SAVED, id, objectMapper.writeValueAsString(prescription));
+	}
+}
@@ -0,0 +1,124 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordVerifierTests {
+
+	private PasswordVerifier verifier;
+
+	@AfterEach
+	void tearDown() {
+		verifier.shutdown();
+	}
+
+	@Test
+	void plainTextRowMatchesAndComesBackHashed() {
+		verifier = new PasswordVerifier(4, 1, 8, 10, ForkJoinPool.commonPool());
+
+		PasswordVerifier.Verification verification = verifier.verify("patient:a", "passJane1", "passJane1").join();
+
+		assertTrue(verification.matches());
+		assertNotNull(verification.upgradedHash());
+		assertTrue(verifier.isHashed(verification.upgradedHash()));
+		assertTrue(verifier.verify("patient:a", "passJane1", verification.upgradedHash()).join().matches());
+	}
+
+	@Test
+	void hashedRowMatchesWithoutRehashAndRejectsWrongPassword() {
+		verifier = new PasswordVerifier(4, 1, 8, 10, ForkJoinPool.commonPool());
+		String stored = verifier.hash("smithSecure");
+
+		PasswordVerifier.Verification match = verifier.verify("patient:b", "smithSecure", stored).join();
+		PasswordVerifier.Verification mismatch = verifier.verify("patient:b", "smithsecure", stored).join();
+
+		assertTrue(match.matches());
+		assertNull(match.upgradedHash());
+		assertFalse(mismatch.matches());
+		assertNull(mismatch.upgradedHash());
+		assertFalse(verifier.verify("patient:b", "smithSecure", "wrong").join().matches());
+	}
+
+	@Test
+	void weakerHashIsUpgradedToTheConfiguredCost() {
+		verifier = new PasswordVerifier(5, 1, 8, 10, ForkJoinPool.commonPool());
+		String weak = new BCryptPasswordEncoder(4).encode("emilyPass99");
+
+		PasswordVerifier.Verification verification = verifier.verify("patient:c", "emilyPass99", weak).join();
+
+		assertTrue(verification.matches());
+		assertTrue(verification.upgradedHash().startsWith("$2a$05$"));
+	}
+
+	@Test
+	void failedRehashStillLogsInAndRunsOffTheVerifierPool() {
+		verifier = new PasswordVerifier(4, 1, 8, 10, ForkJoinPool.commonPool());
+		AtomicReference<String> rehashThread = new AtomicReference<>();
+
+		ResponseEntity<Map<String, String>> response = verifier.login("patient:f", "passLegacy1", "passLegacy1",
+				hash -> {
+					rehashThread.set(Thread.currentThread().getName());
+					throw new IllegalStateException("database unavailable");
+				},
+				() -> "token-f").join();
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals("token-f", response.getBody().get("token"));
+		assertFalse(rehashThread.get().startsWith("password-verifier"), rehashThread.get());
+	}
+
+	@Test
+	void accountIsRateLimitedPerWindow() {
+		verifier = new PasswordVerifier(4, 1, 8, 3, ForkJoinPool.commonPool());
+		String stored = verifier.hash("secret123");
+
+		for (int i = 0; i < 3; i++) {
+			verifier.verify("doctor:d", "guess" + i, stored).join();
+		}
+		PasswordVerifier.RejectedException rejected = assertThrows(PasswordVerifier.RejectedException.class,
+				() -> verifier.verify("doctor:d", "secret123", stored));
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.status());
+		// Other accounts are not affected
+		assertTrue(verifier.verify("doctor:e", "secret123", stored).join().matches());
+	}
+
+	@Test
+	void saturatedPoolRejectsInsteadOfQueueing() {
+		verifier = new PasswordVerifier(12, 1, 1, 100, ForkJoinPool.commonPool());
+		String stored = new BCryptPasswordEncoder(12).encode("secret123");
+
+		List<CompletableFuture<PasswordVerifier.Verification>> accepted = new ArrayList<>();
+		PasswordVerifier.RejectedException rejected = null;
+		for (int i = 0; i < 4 && rejected == null; i++) {
+			try {
+				accepted.add(verifier.verify("admin:" + i, "secret123", stored));
+			} catch (PasswordVerifier.RejectedException e) {
+				rejected = e;
+			}
+		}
+
+		assertNotNull(rejected);
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.status());
+		// One check running and one queued; both still complete
+		assertEquals(2, accepted.size());
+		accepted.forEach(future -> assertTrue(future.join().matches()));
+	}
+}
@@ -0,0 +1,168 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static com.project.back_end.TestFixtures.appointment;
+import static com.project.back_end.TestFixtures.doctor;
+import static com.project.back_end.TestFixtures.patient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PatientAppointmentSyncTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private AppointmentService appointmentService;
+	@Autowired
+	private DoctorService doctorService;
+	@Autowired
+	private TokenService tokenService;
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private PatientRepository patientRepository;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private Doctor doctor;
+	private Patient patient;
+	private String token;
+	private LocalDate day;
+
+	@BeforeEach
+	void setUp() {
+		doctor = doctorRepository.save(doctor("Dr. Sync", "09:00-10:00", "10:00-11:00"));
+		patient = patientRepository.save(patient("Sync Patient"));
+		token = tokenService.generateToken(patient.getEmail());
+		day = LocalDate.now().plusDays(4);
+	}
+
+	@Test
+	void unchangedListingIsNotModifiedAndChangesComeAsDeltas() throws Exception {
+		Appointment first = book(9);
+		String listing = "/patient/" + patient.getId() + "/" + token;
+
+		HttpResponse<String> full = get(listing, null);
+		assertEquals(200, full.statusCode());
+		String etag = full.headers().firstValue("ETag").orElseThrow();
+		assertTrue(etag.startsWith("W/\""), etag);
+		String cacheControl = full.headers().firstValue("Cache-Control").orElseThrow();
+		assertTrue(cacheControl.contains("no-cache") && cacheControl.contains("private"), cacheControl);
+		JsonNode body = json(full);
+		assertEquals(1, body.get("appointments").size());
+		long version = body.get("version").asLong();
+
+		HttpResponse<String> revalidated = get(listing, etag);
+		assertEquals(304, revalidated.statusCode());
+		assertTrue(revalidated.body().isEmpty());
+
+		// A booking moves the version: the old tag no longer matches and the delta holds only it
+		Appointment second = book(10);
+		HttpResponse<String> changed = get(listing, etag);
+		assertEquals(200, changed.statusCode());
+		assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+
+		JsonNode delta = json(get(listing + "?since=" + version, null));
+		assertTrue(delta.get("delta").asBoolean());
+		assertEquals(List.of(second.getId()), ids(delta.get("appointments")));
+		assertEquals(0, delta.get("removed").size());
+		long afterBooking = delta.get("version").asLong();
+		assertTrue(afterBooking > version);
+
+		appointmentService.cancelAppointment(first.getId(), token);
+		JsonNode afterCancel = json(get(listing + "?since=" + afterBooking, null));
+		assertTrue(afterCancel.get("delta").asBoolean());
+		assertEquals(0, afterCancel.get("appointments").size());
+		assertEquals(List.of(first.getId()), ids(afterCancel.get("removed")));
+
+		JsonNode current = json(get(listing + "?since=" + afterCancel.get("version").asLong(), null));
+		assertTrue(current.get("delta").asBoolean());
+		assertEquals(0, current.get("appointments").size());
+		assertEquals(0, current.get("removed").size());
+	}
+
+	@Test
+	void filteredDeltasDropRowsThatLeaveTheFilterAndStaleVersionsReloadInFull() throws Exception {
+		Appointment appointment = book(9);
+		String upcoming = "/patient/filter/" + token + "?condition=future";
+
+		HttpResponse<String> full = get(upcoming, null);
+		String etag = full.headers().firstValue("ETag").orElseThrow();
+		long version = json(full).get("version").asLong();
+		assertEquals(304, get(upcoming, etag).statusCode());
+
+		// Completed appointments leave the upcoming list
+		appointmentService.changeStatus(appointment.getId(), 1);
+		assertEquals(200, get(upcoming, etag).statusCode());
+		JsonNode delta = json(get(upcoming + "&since=" + version, null));
+		assertTrue(delta.get("delta").asBoolean());
+		assertEquals(0, delta.get("appointments").size());
+		assertEquals(List.of(appointment.getId()), ids(delta.get("removed")));
+
+		// A doctor edit reaches every list, so earlier versions can only reload
+		long beforeEdit = delta.get("version").asLong();
+		Doctor edited = doctor("Dr. Sync", "09:00-10:00", "10:00-11:00");
+		edited.setId(doctor.getId());
+		edited.setEmail(doctor.getEmail());
+		edited.setName("Dr. Renamed");
+		assertEquals(1, doctorService.updateDoctor(edited));
+		JsonNode reload = json(get("/patient/filter/" + token + "?condition=past&since=" + beforeEdit, null));
+		assertFalse(reload.get("delta").asBoolean());
+		assertEquals("Dr. Renamed", reload.get("appointments").get(0).get("doctorName").asText());
+
+		assertFalse(json(get(upcoming + "&since=1", null)).get("delta").asBoolean());
+	}
+
+	private Appointment book(int hour) throws Exception {
+		Appointment appointment = appointment(doctor, patient, day.atTime(hour, 0), 0);
+		assertEquals(1, appointmentService.bookAppointment(appointment));
+		return appointment;
+	}
+
+	private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+		if (ifNoneMatch != null) {
+			request.header("If-None-Match", ifNoneMatch);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private JsonNode json(HttpResponse<String> response) throws Exception {
+		assertEquals(200, response.statusCode(), response.body());
+		return objectMapper.readTree(response.body());
+	}
+
+	private static List<Long> ids(JsonNode nodes) {
+		return StreamSupport.stream(nodes.spliterator(), false)
+				.map(node -> node.isObject() ? node.get("id").asLong() : node.asLong())
+				.toList();
+	}
+}
@@ -0,0 +1,101 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.OutboxEventRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrescriptionServiceTests {
+
+	private OutboxEventRepository outboxEventRepository;
+	private AppointmentService appointmentService;
+	private PrescriptionService prescriptionService;
+
+	@BeforeEach
+	void setUp() {
+		outboxEventRepository = mock(OutboxEventRepository.class);
+		appointmentService = mock(AppointmentService.class);
+		prescriptionService = new PrescriptionService(mock(PrescriptionRepository.class), outboxEventRepository,
+				appointmentService, mock(PlatformTransactionManager.class), new ObjectMapper().findAndRegisterModules(),
+				Validation.buildDefaultValidatorFactory().getValidator());
+	}
+
+	@Test
+	void singlePrescriptionIsOneLocalWrite() {
+		ResponseEntity<Map<String, String>> response = prescriptionService.savePrescription(prescription(51L));
+
+		assertEquals(HttpStatus.CREATED, response.getStatusCode());
+		ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+		verify(outboxEventRepository).save(event.capture());
+		assertEquals(OutboxEvent.PRESCRIPTION_SAVED, event.getValue().getType());
+		verify(appointmentService).changeStatus(51L, 1);
+	}
+
+	@Test
+	void savesBatchAndCompletesAppointmentsInOneUpdate() {
+		ResponseEntity<Map<String, Object>> response = prescriptionService.savePrescriptions(List.of(
+				prescription(51L), prescription(52L)));
+
+		assertEquals(HttpStatus.CREATED, response.getStatusCode());
+		assertEquals(2, response.getBody().get("saved"));
+		verify(outboxEventRepository).saveAll(anyList());
+		verify(appointmentService).changeStatus(Set.of(51L, 52L), 1);
+	}
+
+	@Test
+	void reportsInvalidItemsIndividually() {
+		Prescription invalid = prescription(50L);
+		invalid.setMedication("x");
+		ResponseEntity<Map<String, Object>> response = prescriptionService.savePrescriptions(List.of(
+				invalid, prescription(51L)));
+
+		assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+		List<?> results = (List<?>) response.getBody().get("results");
+		assertEquals("invalid", status(results, 0));
+		assertEquals("saved", status(results, 1));
+		assertNotNull(((Map<?, ?>) results.get(1)).get("id"));
+		verify(appointmentService).changeStatus(Set.of(51L), 1);
+	}
+
+	@Test
+	void failedOutboxWriteReportsError() {
+		when(outboxEventRepository.saveAll(anyList())).thenThrow(new IllegalStateException("db down"));
+
+		ResponseEntity<Map<String, Object>> response = prescriptionService.savePrescriptions(List.of(prescription(51L)));
+		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+		verify(appointmentService, never()).changeStatus(Set.of(51L), 1);
+	}
+
+	@Test
+	void rejectsEmptyBatch() {
+		assertEquals(HttpStatus.BAD_REQUEST, prescriptionService.savePrescriptions(List.of()).getStatusCode());
+	}
+
+	private static Object status(List<?> results, int index) {
+		return ((Map<?, ?>) results.get(index)).get("status");
+	}
+
+	private static Prescription prescription(Long appointmentId) {
+		return new Prescription("John Smith", appointmentId, "Paracetamol", "500mg");
+	}
+}
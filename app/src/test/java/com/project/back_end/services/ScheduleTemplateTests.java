@@ -0,0 +1,121 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.ScheduleException;
+import com.project.back_end.models.ScheduleRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleTemplateTests {
+
+	// A Monday
+	private static final LocalDate MONDAY = LocalDate.of(2030, 1, 14);
+
+	@Test
+	void weeklyRulesAreCutIntoSlotsOfTheDoctorsLength() {
+		ScheduleTemplate template = ScheduleTemplate.of(doctor(30, null),
+				List.of(rule(DayOfWeek.MONDAY, "09:00", "10:45"), rule(DayOfWeek.MONDAY, "10:00", "11:00")), List.of());
+
+		assertEquals(List.of("09:00-09:30", "09:30-10:00", "10:00-10:30", "10:30-11:00"), free(template, MONDAY));
+		assertTrue(template.slotsOn(MONDAY.plusDays(1)).isEmpty());
+	}
+
+	@Test
+	void exceptionsRemoveAndAddSlots() {
+		List<ScheduleRule> rules = List.of(rule(DayOfWeek.MONDAY, "09:00", "12:00"));
+		ScheduleException holiday = exception(MONDAY, null, null, false);
+		ScheduleException lateStart = exception(MONDAY.plusWeeks(1), "09:00", "10:00", false);
+		ScheduleException evening = exception(MONDAY.plusWeeks(1), "18:00", "19:00", true);
+		ScheduleTemplate template = ScheduleTemplate.of(doctor(60, null), rules, List.of(holiday, lateStart, evening));
+
+		assertTrue(template.slotsOn(MONDAY).isEmpty());
+		assertEquals(List.of("10:00-11:00", "11:00-12:00", "18:00-19:00"), free(template, MONDAY.plusWeeks(1)));
+		assertEquals(List.of("09:00-10:00", "10:00-11:00", "11:00-12:00"), free(template, MONDAY.plusWeeks(2)));
+	}
+
+	@Test
+	void ruleValidityBoundsTheDatesItAppliesTo() {
+		ScheduleRule rule = rule(DayOfWeek.MONDAY, "09:00", "10:00");
+		rule.setValidFrom(MONDAY.plusWeeks(1));
+		rule.setValidUntil(MONDAY.plusWeeks(2));
+		ScheduleTemplate template = ScheduleTemplate.of(doctor(60, null), List.of(rule), List.of());
+
+		assertTrue(template.slotsOn(MONDAY).isEmpty());
+		assertEquals(List.of("09:00-10:00"), free(template, MONDAY.plusWeeks(2)));
+		assertTrue(template.slotsOn(MONDAY.plusWeeks(3)).isEmpty());
+	}
+
+	@Test
+	void doctorsWithoutRulesKeepTheirAvailableTimesEveryDay() {
+		ScheduleTemplate template = ScheduleTemplate.of(doctor(null, List.of("09:00-10:00", "14:00-15:00")),
+				List.of(), List.of(exception(MONDAY, "14:00", "15:00", false)));
+
+		assertEquals(List.of("09:00-10:00"), free(template, MONDAY));
+		assertEquals(List.of("09:00-10:00", "14:00-15:00"), free(template, MONDAY.plusDays(1)));
+	}
+
+	@Test
+	void extraHoursDoNotOverlapLegacySlots() {
+		ScheduleTemplate template = ScheduleTemplate.of(doctor(30, List.of("09:00-10:00")),
+				List.of(), List.of(exception(MONDAY, "09:30", "11:00", true)));
+
+		assertEquals(List.of("09:00-10:00", "10:00-10:30", "10:30-11:00"), free(template, MONDAY));
+	}
+
+	@Test
+	void daysWithTheSameStartsButOtherLabelsKeepTheirOwnBitmap() {
+		ScheduleTemplate template = ScheduleTemplate.of(doctor(60, List.of("09:00-09:30")), List.of(),
+				List.of(exception(MONDAY, "09:00", "09:30", false), exception(MONDAY, "09:00", "10:00", true)));
+
+		assertEquals(List.of("09:00-10:00"), free(template, MONDAY));
+		assertEquals(List.of("09:00-09:30"), free(template, MONDAY.plusDays(1)));
+		assertEquals(List.of("09:00-10:00"), free(template, MONDAY));
+	}
+
+	@Test
+	void daysWithTheSameSlotsShareOneBitmap() {
+		ScheduleTemplate template = ScheduleTemplate.of(doctor(60, null),
+				List.of(rule(DayOfWeek.MONDAY, "09:00", "12:00")), List.of());
+
+		assertSame(template.slotsOn(MONDAY), template.slotsOn(MONDAY.plusWeeks(5)));
+	}
+
+	private static List<String> free(ScheduleTemplate template, LocalDate date) {
+		return template.slotsOn(date).freeLabels(0L, 0L);
+	}
+
+	private static Doctor doctor(Integer slotMinutes, List<String> availableTimes) {
+		Doctor doctor = new Doctor();
+		doctor.setId(1L);
+		doctor.setSlotMinutes(slotMinutes);
+		doctor.setAvailableTimes(availableTimes);
+		return doctor;
+	}
+
+	private static ScheduleRule rule(DayOfWeek day, String start, String end) {
+		ScheduleRule rule = new ScheduleRule();
+		rule.setDoctorId(1L);
+		rule.setDayOfWeek(day);
+		rule.setStartTime(LocalTime.parse(start));
+		rule.setEndTime(LocalTime.parse(end));
+		return rule;
+	}
+
+	private static ScheduleException exception(LocalDate date, String start, String end, boolean available) {
+		ScheduleException exception = new ScheduleException();
+		exception.setDoctorId(1L);
+		exception.setDate(date);
+		exception.setStartTime(start == null ? null : LocalTime.parse(start));
+		exception.setEndTime(end == null ? null : LocalTime.parse(end));
+		exception.setAvailable(available);
+		return exception;
+	}
+}
@@ -0,0 +1,46 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.MetricsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ServiceMetricsTests {
+
+	@Autowired
+	private TokenService tokenService;
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void publicServiceMethodsAreTimedByClassAndMethod() {
+		String token = tokenService.generateToken("metrics@example.com");
+		long before = count("validateToken");
+
+		tokenService.validateToken(token, "doctor");
+		tokenService.validateToken("not-a-token", "doctor");
+
+		assertEquals(before + 2, count("validateToken"));
+		assertNotNull(timer("generateToken"));
+	}
+
+	private long count(String method) {
+		Timer timer = timer(method);
+		return timer == null ? 0 : timer.count();
+	}
+
+	private Timer timer(String method) {
+		return registry.find(MetricsConfig.SERVICE_CALLS)
+				.tag("class", TokenService.class.getName())
+				.tag("method", method)
+				.timer();
+	}
+}
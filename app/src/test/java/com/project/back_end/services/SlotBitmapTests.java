@@ -0,0 +1,42 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotBitmapTests {
+
+	@Test
+	void parsesStartsIntoQuarterBits() {
+		SlotBitmap slots = SlotBitmap.parse(List.of("14:00-15:00", "09:00-10:00", "23:45-24:00", "bogus"));
+
+		assertTrue(slots.contains(36));
+		assertTrue(slots.contains(56));
+		assertTrue(slots.contains(95));
+		assertEquals(List.of("09:00-10:00", "14:00-15:00", "23:45-24:00"), slots.freeLabels(0L, 0L));
+	}
+
+	@Test
+	void amAndPmAreBitwise() {
+		assertTrue(SlotBitmap.parse(List.of("11:45-12:00")).hasAm());
+		assertFalse(SlotBitmap.parse(List.of("11:45-12:00")).hasPm());
+		assertTrue(SlotBitmap.parse(List.of("12:00-13:00")).hasPm());
+		assertTrue(SlotBitmap.parse(List.of("17:00-18:00")).hasPm());
+		assertFalse(SlotBitmap.EMPTY.hasAm());
+	}
+
+	@Test
+	void bookedBitsAreSubtracted() {
+		SlotBitmap slots = SlotBitmap.parse(List.of("09:00-10:00", "10:00-11:00", "17:00-18:00"));
+		int nine = SlotBitmap.quarterOf(LocalDateTime.of(2030, 1, 1, 9, 0));
+		int five = SlotBitmap.quarterOf(LocalDateTime.of(2030, 1, 1, 17, 0));
+
+		assertEquals(List.of("10:00-11:00"), slots.freeLabels(1L << nine, 1L << (five - 64)));
+		assertEquals(-1, SlotBitmap.quarterOf(LocalDateTime.of(2030, 1, 1, 9, 10)));
+	}
+}
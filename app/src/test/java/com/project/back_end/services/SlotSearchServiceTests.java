@@ -0,0 +1,103 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AvailableSlot;
+import com.project.back_end.TestFixtures;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static com.project.back_end.TestFixtures.appointment;
+import static com.project.back_end.TestFixtures.patient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SlotSearchServiceTests {
+
+	@Autowired
+	private SlotSearchService slotSearchService;
+	@Autowired
+	private DoctorDirectoryCache directoryCache;
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private PatientRepository patientRepository;
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	private String specialty;
+	private Doctor early;
+	private Doctor late;
+	private LocalDate monday;
+
+	@BeforeEach
+	void setUp() {
+		specialty = "Slots" + System.nanoTime();
+		early = doctor("Dr. Early", List.of("09:00-10:00", "14:00-15:00"));
+		late = doctor("Dr. Late", List.of("09:00-10:00", "10:00-11:00"));
+		directoryCache.invalidate();
+		monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+		book(early, monday.atTime(9, 0));
+	}
+
+	@Test
+	void earliestFreeSlotsAreMergedAcrossDoctors() {
+		List<AvailableSlot> slots = slotSearchService.findEarliest(specialty, null, monday, monday.plusDays(1), 3);
+
+		assertEquals(List.of(
+				at(late, monday.atTime(9, 0)),
+				at(late, monday.atTime(10, 0)),
+				at(early, monday.atTime(14, 0))), starts(slots));
+		assertEquals("14:00-15:00", slots.get(2).slot());
+		assertEquals(monday.atTime(15, 0), slots.get(2).end());
+	}
+
+	@Test
+	void halfOfDayAndRangeNarrowTheSearch() {
+		List<AvailableSlot> mornings = slotSearchService.findEarliest(specialty, "AM", monday, monday.plusDays(1), 50);
+		List<AvailableSlot> afternoons = slotSearchService.findEarliest(specialty, "pm", monday, monday, null);
+
+		assertEquals(List.of(
+				at(late, monday.atTime(9, 0)),
+				at(late, monday.atTime(10, 0)),
+				at(early, monday.plusDays(1).atTime(9, 0)),
+				at(late, monday.plusDays(1).atTime(9, 0)),
+				at(late, monday.plusDays(1).atTime(10, 0))), starts(mornings));
+		assertEquals(List.of(at(early, monday.atTime(14, 0))), starts(afternoons));
+		assertTrue(slotSearchService.findEarliest("NoSuchSpecialty", null, monday, monday, null).isEmpty());
+		assertTrue(slotSearchService.findEarliest(specialty, null, monday, monday.minusDays(1), null).isEmpty());
+	}
+
+	private static String at(Doctor doctor, LocalDateTime start) {
+		return doctor.getName() + "@" + start;
+	}
+
+	private static List<String> starts(List<AvailableSlot> slots) {
+		return slots.stream().map(slot -> slot.doctorName() + "@" + slot.start()).toList();
+	}
+
+	private Doctor doctor(String name, List<String> availableTimes) {
+		Doctor doctor = TestFixtures.doctor(name, availableTimes.toArray(String[]::new));
+		doctor.setSpecialty(specialty);
+		return doctorRepository.save(doctor);
+	}
+
+	private void book(Doctor doctor, LocalDateTime time) {
+		Patient patient = patientRepository.save(patient("Slots Patient"));
+		appointmentRepository.save(appointment(doctor, patient, time, 0));
+	}
+}
@@ -0,0 +1,87 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AuthPrincipal;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenServiceTests {
+
+	private DoctorRepository doctorRepository;
+	private TokenService tokenService;
+
+	@BeforeEach
+	void setUp() {
+		doctorRepository = mock(DoctorRepository.class);
+		tokenService = new TokenService(mock(AdminRepository.class), doctorRepository,
+				mock(PatientRepository.class), new TokenCache(100, 600));
+		ReflectionTestUtils.setField(tokenService, "secret", "0123456789abcdef0123456789abcdef0123456789");
+		tokenService.init();
+
+		Doctor doctor = new Doctor();
+		doctor.setId(7L);
+		doctor.setEmail("dr.adams@example.com");
+		when(doctorRepository.findByEmail("dr.adams@example.com")).thenReturn(doctor);
+	}
+
+	@Test
+	void warmTokenSkipsIdentityQuery() {
+		String token = tokenService.generateToken("dr.adams@example.com");
+
+		AuthPrincipal principal = tokenService.resolvePrincipal(token, "doctor");
+		assertEquals(7L, principal.id());
+		assertTrue(tokenService.validateToken(token, "doctor"));
+		assertEquals("dr.adams@example.com", tokenService.extractIdentifier(token));
+
+		verify(doctorRepository, times(1)).findByEmail("dr.adams@example.com");
+	}
+
+	@Test
+	void evictedIdentifierIsResolvedAgain() {
+		String token = tokenService.generateToken("dr.adams@example.com");
+		assertTrue(tokenService.validateToken(token, "doctor"));
+
+		tokenService.evictIdentifier("dr.adams@example.com");
+		when(doctorRepository.findByEmail("dr.adams@example.com")).thenReturn(null);
+
+		assertFalse(tokenService.validateToken(token, "doctor"));
+	}
+
+	@Test
+	void cacheStaysBoundedAndEvictsOnlyTheSubject() {
+		TokenCache cache = new TokenCache(10, 600);
+		for (int i = 0; i < 25; i++) {
+			cache.put("token-" + i, "user-" + (i % 5), null);
+		}
+		assertTrue(cache.size() <= 10, "size " + cache.size());
+
+		cache.put("kept", "other", null);
+		TokenCache.Entry evicted = cache.put("dropped", "user-x", null);
+		cache.evictSubject("user-x");
+
+		assertNull(cache.get("dropped"));
+		assertEquals("other", cache.get("kept").subject());
+		// A lookup that read the principal before the eviction does not cache it
+		evicted.putPrincipal(new AuthPrincipal("doctor", 7L, "user-x"));
+		assertNull(evicted.principal("doctor"));
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		String token = tokenService.generateToken("dr.adams@example.com");
+		assertNull(tokenService.resolvePrincipal(token + "x", "doctor"));
+	}
+}